@@ -0,0 +1,60 @@
+-- Query plans for the booking hot paths, each run with and without the index V2 added, on
+-- the same data. Populate some bookings first (e.g. with the load-test harness), then:
+--
+--   docker exec -i cinema_mysql mysql -ucinema_user -pcinema_password cinema_db < docker/mysql/explain-hot-queries.sql
+--
+-- Compare the access type and "rows" of each pair: the IGNORE INDEX variant is the
+-- pre-migration plan.
+
+SET @seat_id = (SELECT seat_id FROM booking ORDER BY id DESC LIMIT 1);
+SET @screening_id = (SELECT screening_id FROM booking ORDER BY id DESC LIMIT 1);
+SET @email = (SELECT customer_email FROM booking GROUP BY customer_email ORDER BY COUNT(*) DESC LIMIT 1);
+SET @movie_id = (SELECT movie_id FROM screening GROUP BY movie_id ORDER BY COUNT(*) DESC LIMIT 1);
+
+-- 1. Pending booking for a seat (createBooking conflict path)
+EXPLAIN ANALYZE
+SELECT id, customer_email FROM booking IGNORE INDEX (idx_booking_seat_status)
+WHERE seat_id = @seat_id AND status = 'PENDING';
+EXPLAIN ANALYZE
+SELECT id, customer_email FROM booking
+WHERE seat_id = @seat_id AND status = 'PENDING';
+
+-- 2. Booking by screening, seat and status (find/existsByScreeningAndSeatAndStatus)
+EXPLAIN ANALYZE
+SELECT 1 FROM booking IGNORE INDEX (idx_booking_seat_status)
+WHERE screening_id = @screening_id AND seat_id = @seat_id AND status = 'PENDING' LIMIT 1;
+EXPLAIN ANALYZE
+SELECT 1 FROM booking
+WHERE screening_id = @screening_id AND seat_id = @seat_id AND status = 'PENDING' LIMIT 1;
+
+-- 3. Expiry sweep batch
+EXPLAIN ANALYZE
+SELECT id FROM booking IGNORE INDEX (idx_booking_status_expiration)
+WHERE status = 'PENDING' AND expiration_time <= NOW() ORDER BY id LIMIT 500;
+EXPLAIN ANALYZE
+SELECT id FROM booking
+WHERE status = 'PENDING' AND expiration_time <= NOW() ORDER BY id LIMIT 500;
+
+-- 4. Available seats of a screening (screening summaries, seat-count refresh)
+EXPLAIN ANALYZE
+SELECT COUNT(id) FROM seat IGNORE INDEX (idx_seat_screening_status)
+WHERE screening_id = @screening_id AND status = 'AVAILABLE';
+EXPLAIN ANALYZE
+SELECT COUNT(id) FROM seat
+WHERE screening_id = @screening_id AND status = 'AVAILABLE';
+
+-- 5. First page of a customer's booking history
+EXPLAIN ANALYZE
+SELECT id, booking_time FROM booking IGNORE INDEX (idx_booking_customer_time)
+WHERE customer_email = @email ORDER BY booking_time DESC, id DESC LIMIT 21;
+EXPLAIN ANALYZE
+SELECT id, booking_time FROM booking
+WHERE customer_email = @email ORDER BY booking_time DESC, id DESC LIMIT 21;
+
+-- 6. Screenings of a movie in time order
+EXPLAIN ANALYZE
+SELECT id, screening_time FROM screening IGNORE INDEX (idx_screening_movie_time)
+WHERE movie_id = @movie_id ORDER BY screening_time, id;
+EXPLAIN ANALYZE
+SELECT id, screening_time FROM screening
+WHERE movie_id = @movie_id ORDER BY screening_time, id;
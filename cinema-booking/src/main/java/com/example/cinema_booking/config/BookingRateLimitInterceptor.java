@@ -0,0 +1,43 @@
+package com.example.cinema_booking.config;
+
+import com.example.cinema_booking.service.RateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Applies the per-IP bucket and the in-flight cap to the reserve and book
+ * endpoints. The slot is held until the async booking future completes.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingRateLimitInterceptor implements AsyncHandlerInterceptor {
+    private static final String SLOT_ATTRIBUTE = BookingRateLimitInterceptor.class.getName() + ".slot";
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async re-dispatch that writes the result passes through here again
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        rateLimiter.checkClient(request.getRemoteAddr());
+        rateLimiter.enterBooking();
+        request.setAttribute(SLOT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    // Runs once, after the final (async) dispatch
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(SLOT_ATTRIBUTE) != null) {
+            request.removeAttribute(SLOT_ATTRIBUTE);
+            rateLimiter.exitBooking();
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package com.example.cinema_booking.config;
 
+import com.example.cinema_booking.dto.request.ScreeningRequestDTO;
 import com.example.cinema_booking.entity.Movie;
-import com.example.cinema_booking.entity.Screening;
-import com.example.cinema_booking.entity.Seat;
-import com.example.cinema_booking.enums.SeatStatus;
 import com.example.cinema_booking.repository.MovieRepository;
-import com.example.cinema_booking.repository.ScreeningRepository;
+import com.example.cinema_booking.service.ClusterLeaseManager;
+import com.example.cinema_booking.service.ScreeningService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -16,7 +15,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
@@ -24,12 +22,14 @@ import java.util.concurrent.ConcurrentHashMap;
 @Profile("!prod") // Don't run in production
 public class DataInitializer implements CommandLineRunner {
     private final MovieRepository movieRepository;
-    private final ScreeningRepository screeningRepository;
+    private final ScreeningService screeningService;
+    private final ClusterLeaseManager clusterLeaseManager;
 
     @Override
     @Transactional
     public void run(String... args) {
-        if (movieRepository.count() > 0) {
+        // With several instances starting together only the lease holder seeds the database
+        if (!clusterLeaseManager.tryAcquire("data-initializer") || movieRepository.count() > 0) {
             log.info("Database already has data, skipping initialization");
             return;
         }
@@ -40,10 +40,12 @@ public class DataInitializer implements CommandLineRunner {
         List<Movie> movies = createMovies();
         movies = movieRepository.saveAll(movies);
 
-        // Create screenings for each movie
+        // Create screenings for each movie, all seats in one batched import
+        List<ScreeningRequestDTO> screenings = new ArrayList<>();
         for (Movie movie : movies) {
-            createScreeningsForMovie(movie);
+            screenings.addAll(createScreeningsForMovie(movie));
         }
+        screeningService.importScreenings(screenings);
 
         log.info("Data initialization completed");
     }
@@ -74,41 +76,23 @@ public class DataInitializer implements CommandLineRunner {
         );
     }
 
-    private void createScreeningsForMovie(Movie movie) {
+    private List<ScreeningRequestDTO> createScreeningsForMovie(Movie movie) {
         LocalDateTime now = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0);
-        
-        List<Screening> screenings = List.of(
+
+        return List.of(
             createScreening(movie, now.withHour(10)),
             createScreening(movie, now.withHour(14)),
             createScreening(movie, now.plusDays(1).withHour(10))
         );
-
-        screeningRepository.saveAll(screenings);
     }
 
-    private Screening createScreening(Movie movie, LocalDateTime time) {
-        Screening screening = Screening.builder()
-            .movie(movie)
+    // 100 seats (10x10)
+    private ScreeningRequestDTO createScreening(Movie movie, LocalDateTime time) {
+        return ScreeningRequestDTO.builder()
+            .movieId(movie.getId())
             .screeningTime(time)
-            .totalSeats(100)
-            .availableSeats(100)
-            .seats(ConcurrentHashMap.newKeySet())
+            .rowCount(10)
+            .seatsPerRow(10)
             .build();
-
-        // Create 100 seats (10x10)
-        for (int row = 0; row < 10; row++) {
-            String rowLabel = String.valueOf((char) ('A' + row));
-            for (int seatNum = 1; seatNum <= 10; seatNum++) {
-                Seat seat = Seat.builder()
-                    .screening(screening)
-                    .seatRow(rowLabel)
-                    .seatNumber(String.valueOf(seatNum))
-                    .status(SeatStatus.AVAILABLE)
-                    .build();
-                screening.getSeats().add(seat);
-            }
-        }
-
-        return screening;
     }
-} 
\ No newline at end of file
+}
@@ -1,11 +1,15 @@
 package com.example.cinema_booking.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
+    private final BookingRateLimitInterceptor bookingRateLimitInterceptor;
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -16,4 +20,12 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bookingRateLimitInterceptor)
+                .addPathPatterns("/api/bookings", "/api/bookings/group",
+                        "/api/bookings/screenings/*/seats/*/reserve",
+                        "/api/bookings/screenings/*/best-available");
+    }
+}
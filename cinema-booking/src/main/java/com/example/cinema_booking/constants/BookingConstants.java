@@ -4,5 +4,15 @@ public class BookingConstants {
     public static final long BOOKING_TIMEOUT_MINUTES = 10;
     public static final int MAX_CONCURRENT_BOOKINGS = 50;
     public static final int MAX_SEATS_PER_BOOKING = 10;
+    public static final int MAX_HOLDS_PER_CUSTOMER = 10;
+    public static final int MAX_HOLDS_PER_CLIENT = 20;
     public static final long SEAT_LOCK_TIMEOUT_SECONDS = 30;
+    public static final long RESERVATION_TIMEOUT_MINUTES = 5;
+    public static final long PENDING_BOOKING_TIMEOUT_MINUTES = 15;
+    public static final int MAX_SCREENINGS_PER_IMPORT = 1000;
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+    public static final int MAX_SEARCH_QUERY_LENGTH = 200;
 }
@@ -0,0 +1,46 @@
+package com.example.cinema_booking.controller;
+
+import com.example.cinema_booking.dto.response.SalesReportDTO;
+import com.example.cinema_booking.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/analytics/sales")
+@RequiredArgsConstructor
+public class AnalyticsController {
+    private final SalesReportService salesReportService;
+
+    @GetMapping("/movies")
+    public CompletableFuture<ResponseEntity<List<SalesReportDTO>>> getSalesByMovie(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long movieId) {
+        return salesReportService.getByMovie(from, to, movieId)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/daily")
+    public CompletableFuture<ResponseEntity<List<SalesReportDTO>>> getSalesByDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long movieId) {
+        return salesReportService.getByDay(from, to, movieId)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/hourly")
+    public CompletableFuture<ResponseEntity<List<SalesReportDTO>>> getSalesByHour(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long movieId) {
+        return salesReportService.getByHour(from, to, movieId)
+                .thenApply(ResponseEntity::ok);
+    }
+}
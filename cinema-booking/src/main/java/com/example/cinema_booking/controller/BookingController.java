@@ -1,16 +1,28 @@
 package com.example.cinema_booking.controller;
 
 import com.example.cinema_booking.dto.request.BookingRequestDTO;
+import com.example.cinema_booking.dto.request.GroupBookingRequestDTO;
+import com.example.cinema_booking.dto.response.BookingHistoryPageDTO;
 import com.example.cinema_booking.dto.response.BookingResponseDTO;
+import com.example.cinema_booking.dto.response.SeatBlockDTO;
+import com.example.cinema_booking.service.BookingHistoryService;
 import com.example.cinema_booking.service.BookingService;
+import com.example.cinema_booking.service.IdempotencyService;
+import com.example.cinema_booking.service.RateLimiter;
+import com.example.cinema_booking.service.SeatRecommendationService;
+import com.example.cinema_booking.service.WaitingRoomService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,70 +30,153 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
-    private final Map<String, CompletableFuture<ResponseEntity<BookingResponseDTO>>> ongoingBookings = new ConcurrentHashMap<>();
+    private final IdempotencyService idempotencyService;
+    private final BookingHistoryService bookingHistoryService;
+    private final WaitingRoomService waitingRoomService;
+    private final SeatRecommendationService seatRecommendationService;
+    private final RateLimiter rateLimiter;
 
     @PostMapping
-    public CompletableFuture<ResponseEntity<BookingResponseDTO>> createBooking(@RequestBody BookingRequestDTO bookingRequest) {
-        // Create a unique key for this booking request
-        String bookingKey = String.format("%d-%d-%s", 
-            bookingRequest.getScreeningId(), 
-            bookingRequest.getSeatId(),
-            bookingRequest.getCustomerEmail());
-
-        // Check if there's an ongoing booking for this request
-        CompletableFuture<ResponseEntity<BookingResponseDTO>> existingBooking = ongoingBookings.get(bookingKey);
-        if (existingBooking != null && !existingBooking.isDone()) {
-            return existingBooking;
-        }
-
-        // Create new booking future
-        CompletableFuture<ResponseEntity<BookingResponseDTO>> bookingFuture = bookingService.createBooking(bookingRequest)
-                .thenApply(booking -> ResponseEntity.ok(BookingResponseDTO.fromEntity(booking)))
-                .whenComplete((result, ex) -> ongoingBookings.remove(bookingKey));
+    public CompletableFuture<ResponseEntity<BookingResponseDTO>> createBooking(
+            @RequestBody BookingRequestDTO bookingRequest,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = WaitingRoomService.HEADER, required = false) String admissionToken,
+            HttpServletRequest request) {
+        // Replays of a completed idempotent request skip admission and the customer rate limit
+        return idempotencyService.execute(idempotencyKey,
+                IdempotencyService.client(bookingRequest.getCustomerEmail(), request.getRemoteAddr()),
+                "create-booking", bookingRequest,
+                new TypeReference<BookingResponseDTO>() {},
+                throttled(bookingRequest.getCustomerEmail(), () -> waitingRoomService.admit(bookingRequest.getScreeningId(),
+                                admissionToken, () -> bookingService.createBooking(bookingRequest))
+                        .thenApply(booking -> ResponseEntity.ok(BookingResponseDTO.fromEntity(booking)))));
+    }
 
-        // Store the booking future
-        ongoingBookings.put(bookingKey, bookingFuture);
-        
-        return bookingFuture;
+    @PostMapping("/group")
+    public CompletableFuture<ResponseEntity<List<BookingResponseDTO>>> createGroupBooking(
+            @RequestBody GroupBookingRequestDTO bookingRequest,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = WaitingRoomService.HEADER, required = false) String admissionToken,
+            HttpServletRequest request) {
+        return idempotencyService.execute(idempotencyKey,
+                IdempotencyService.client(bookingRequest.getCustomerEmail(), request.getRemoteAddr()),
+                "create-group-booking", bookingRequest,
+                new TypeReference<List<BookingResponseDTO>>() {},
+                throttled(bookingRequest.getCustomerEmail(), () -> waitingRoomService.admit(bookingRequest.getScreeningId(),
+                                admissionToken, () -> bookingService.createGroupBooking(bookingRequest))
+                        .thenApply(bookings -> bookings.stream()
+                                .map(BookingResponseDTO::fromEntity)
+                                .collect(Collectors.toList()))
+                        .thenApply(ResponseEntity::ok)));
     }
 
     @DeleteMapping("/{id}")
-    public CompletableFuture<ResponseEntity<Void>> cancelBooking(@PathVariable Long id) {
-        return bookingService.cancelBooking(id)
-                .thenApply(result -> ResponseEntity.ok().build());
+    public CompletableFuture<ResponseEntity<Void>> cancelBooking(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request) {
+        return idempotencyService.execute(idempotencyKey, IdempotencyService.client(null, request.getRemoteAddr()),
+                "cancel-booking", Map.of("bookingId", id),
+                new TypeReference<Void>() {},
+                () -> bookingService.cancelBooking(id)
+                        .thenApply(result -> ResponseEntity.ok().<Void>build()));
     }
 
     @PostMapping("/screenings/{screeningId}/seats/{seatId}/reserve")
     public CompletableFuture<ResponseEntity<Boolean>> reserveSeat(
             @PathVariable Long screeningId,
-            @PathVariable Long seatId) {
-        return bookingService.reserveSeat(screeningId, seatId)
-                .thenApply(result -> ResponseEntity.ok(result));
+            @PathVariable Long seatId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = WaitingRoomService.HEADER, required = false) String admissionToken,
+            @RequestHeader(value = RateLimiter.CUSTOMER_HEADER, required = false) String customerEmail,
+            HttpServletRequest request) {
+        RateLimiter.Holder holder = RateLimiter.holderOf(customerEmail, request.getRemoteAddr());
+        return idempotencyService.execute(idempotencyKey,
+                IdempotencyService.client(customerEmail, request.getRemoteAddr()), "reserve-seat",
+                Map.of("screeningId", screeningId, "seatId", seatId),
+                new TypeReference<Boolean>() {},
+                throttled(customerEmail, () -> waitingRoomService.admit(screeningId, admissionToken,
+                                () -> bookingService.reserveSeat(screeningId, seatId, holder))
+                        .thenApply(result -> ResponseEntity.ok(result))));
+    }
+
+    // Holds the best block of adjacent seats, as from GET /api/screenings/{id}/seats/recommendations
+    @PostMapping("/screenings/{screeningId}/best-available")
+    public CompletableFuture<ResponseEntity<SeatBlockDTO>> reserveBestAvailable(
+            @PathVariable Long screeningId,
+            @RequestParam int seats,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = WaitingRoomService.HEADER, required = false) String admissionToken,
+            @RequestHeader(value = RateLimiter.CUSTOMER_HEADER, required = false) String customerEmail,
+            HttpServletRequest request) {
+        RateLimiter.Holder holder = RateLimiter.holderOf(customerEmail, request.getRemoteAddr());
+        return idempotencyService.execute(idempotencyKey,
+                IdempotencyService.client(customerEmail, request.getRemoteAddr()), "reserve-best-available",
+                Map.of("screeningId", screeningId, "seats", seats),
+                new TypeReference<SeatBlockDTO>() {},
+                throttled(customerEmail, () -> waitingRoomService.admit(screeningId, admissionToken,
+                                () -> seatRecommendationService.reserveBest(screeningId, seats, holder))
+                        .thenApply(ResponseEntity::ok)));
     }
 
     @PostMapping("/screenings/{screeningId}/seats/{seatId}/release")
     public CompletableFuture<ResponseEntity<Boolean>> releaseSeatReservation(
             @PathVariable Long screeningId,
-            @PathVariable Long seatId) {
-        return bookingService.releaseSeatReservation(screeningId, seatId)
-                .thenApply(result -> ResponseEntity.ok(result));
+            @PathVariable Long seatId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request) {
+        return idempotencyService.execute(idempotencyKey, IdempotencyService.client(null, request.getRemoteAddr()),
+                "release-seat",
+                Map.of("screeningId", screeningId, "seatId", seatId),
+                new TypeReference<Boolean>() {},
+                () -> bookingService.releaseSeatReservation(screeningId, seatId)
+                        .thenApply(result -> ResponseEntity.ok(result)));
     }
 
     @PostMapping("/{id}/confirm")
-    public CompletableFuture<ResponseEntity<Void>> confirmBooking(@PathVariable Long id) {
-        return bookingService.confirmBooking(id)
-                .thenApply(result -> ResponseEntity.ok().build());
+    public CompletableFuture<ResponseEntity<Void>> confirmBooking(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request) {
+        return idempotencyService.execute(idempotencyKey, IdempotencyService.client(null, request.getRemoteAddr()),
+                "confirm-booking", Map.of("bookingId", id),
+                new TypeReference<Void>() {},
+                () -> bookingService.confirmBooking(id)
+                        .thenApply(result -> ResponseEntity.ok().<Void>build()));
     }
 
     @GetMapping("/user/{email}")
     public CompletableFuture<ResponseEntity<List<BookingResponseDTO>>> getBookingsByEmail(@PathVariable String email) {
-        return bookingService.getBookingsByEmail(email)
-                .thenApply(bookings -> bookings.stream()
-                        .map(BookingResponseDTO::fromEntity)
-                        .collect(Collectors.toList()))
+        return bookingHistoryService.getBookingsByEmail(email)
                 .thenApply(ResponseEntity::ok)
                 .exceptionally(throwable -> {
                     throw new RuntimeException("Failed to fetch bookings: " + throwable.getMessage());
                 });
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/user/{email}/history")
+    public CompletableFuture<ResponseEntity<BookingHistoryPageDTO>> getBookingHistory(
+            @PathVariable String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return bookingHistoryService.getBookingPage(email, cursor, size)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    // Chunked JSON array, written while the rows are read from the database
+    @GetMapping(value = "/user/{email}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookingsByEmail(@PathVariable String email) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> bookingHistoryService.streamBookingsByEmail(email, out));
+    }
+
+    // The customer token is taken only when the request actually runs, so idempotent replays
+    // and duplicates that share a running request do not use up the customer's budget
+    private <T> Supplier<CompletableFuture<T>> throttled(String customerEmail, Supplier<CompletableFuture<T>> action) {
+        return () -> {
+            rateLimiter.checkCustomer(customerEmail);
+            return action.get();
+        };
+    }
+}
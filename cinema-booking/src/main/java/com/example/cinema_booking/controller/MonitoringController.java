@@ -0,0 +1,36 @@
+package com.example.cinema_booking.controller;
+
+import com.example.cinema_booking.dto.response.LockStripeStatsDTO;
+import com.example.cinema_booking.service.ClusterLeaseManager;
+import com.example.cinema_booking.service.SeatLockManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/monitoring")
+@RequiredArgsConstructor
+public class MonitoringController {
+    private final SeatLockManager seatLockManager;
+    private final ClusterLeaseManager clusterLeaseManager;
+
+    @GetMapping("/locks")
+    public ResponseEntity<List<LockStripeStatsDTO>> getLockStats(@RequestParam(defaultValue = "10") int top) {
+        List<LockStripeStatsDTO> stats = seatLockManager.getStripeStats();
+        return ResponseEntity.ok(stats.subList(0, Math.min(Math.max(top, 0), stats.size())));
+    }
+
+    @GetMapping("/cluster")
+    public ResponseEntity<Map<String, Object>> getClusterStatus() {
+        return ResponseEntity.ok(Map.of(
+                "instanceId", clusterLeaseManager.getInstanceId(),
+                "clusterEnabled", clusterLeaseManager.isClusterEnabled(),
+                "heldLeases", clusterLeaseManager.getHeldLeases()));
+    }
+}
@@ -3,19 +3,31 @@ package com.example.cinema_booking.controller;
 
 import com.example.cinema_booking.dto.request.MovieRequestDTO;
 import com.example.cinema_booking.dto.response.MovieResponseDTO;
+import com.example.cinema_booking.service.MovieCatalogCache;
 import com.example.cinema_booking.service.MovieService;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/movies")
-@RequiredArgsConstructor
 public class MovieController {
     private final MovieService movieService;
+    private final CacheControl cacheControl;
+
+    public MovieController(MovieService movieService,
+                           @Value("${booking.movies.http.max-age-seconds:60}") long maxAgeSeconds) {
+        this.movieService = movieService;
+        // Clients may reuse a payload for max-age, then revalidate it cheaply with If-None-Match
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
 
     @PostMapping
     public CompletableFuture<ResponseEntity<MovieResponseDTO>> createMovie(@RequestBody MovieRequestDTO movieRequest) {
@@ -24,15 +36,30 @@ public class MovieController {
     }
 
     @GetMapping
-    public CompletableFuture<ResponseEntity<List<MovieResponseDTO>>> getAllMovies() {
-        return movieService.getAllMovies()
-                .thenApply(ResponseEntity::ok);
+    public CompletableFuture<ResponseEntity<List<MovieResponseDTO>>> getAllMovies(
+            @RequestParam(required = false) String genre,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return movieService.getAllMovies(genre)
+                .thenApply(cached -> conditional(cached, ifNoneMatch));
+    }
+
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<List<MovieResponseDTO>>> searchMovies(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return movieService.searchMovies(q, page, size)
+                .thenApply(result -> ResponseEntity.ok()
+                        .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                        .body(result.getContent()));
     }
 
     @GetMapping("/{id}")
-    public CompletableFuture<ResponseEntity<MovieResponseDTO>> getMovieById(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<MovieResponseDTO>> getMovieById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         return movieService.getMovieById(id)
-                .thenApply(ResponseEntity::ok);
+                .thenApply(cached -> conditional(cached, ifNoneMatch));
     }
 
     @PutMapping("/{id}")
@@ -48,4 +75,31 @@ public class MovieController {
         return movieService.deleteMovie(id)
                 .thenApply(result -> ResponseEntity.ok().build());
     }
+
+    private <T> ResponseEntity<T> conditional(MovieCatalogCache.Cached<T> cached, String ifNoneMatch) {
+        if (matches(ifNoneMatch, cached.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(cacheControl)
+                .body(cached.value());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // Weak comparison, as required for If-None-Match
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
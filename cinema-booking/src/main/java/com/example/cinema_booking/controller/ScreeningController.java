@@ -1,13 +1,23 @@
 package com.example.cinema_booking.controller;
 
+import com.example.cinema_booking.dto.request.BulkScreeningRequestDTO;
 import com.example.cinema_booking.dto.request.ScreeningRequestDTO;
 import com.example.cinema_booking.dto.response.ScreeningResponseDTO;
+import com.example.cinema_booking.dto.response.SeatBlockDTO;
 import com.example.cinema_booking.dto.response.SeatResponseDTO;
 import com.example.cinema_booking.service.ScreeningService;
+import com.example.cinema_booking.service.SeatRecommendationService;
+import com.example.cinema_booking.service.SeatMapStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -16,6 +26,8 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class ScreeningController {
     private final ScreeningService screeningService;
+    private final SeatMapStreamService seatMapStreamService;
+    private final SeatRecommendationService seatRecommendationService;
 
     @PostMapping
     public CompletableFuture<ResponseEntity<ScreeningResponseDTO>> createScreening(@RequestBody ScreeningRequestDTO request) {
@@ -23,6 +35,13 @@ public class ScreeningController {
                 .thenApply(ResponseEntity::ok);
     }
 
+    @PostMapping("/bulk")
+    public CompletableFuture<ResponseEntity<List<ScreeningResponseDTO>>> createScreenings(
+            @RequestBody BulkScreeningRequestDTO request) {
+        return screeningService.createScreenings(request)
+                .thenApply(ResponseEntity::ok);
+    }
+
     @GetMapping("/{id}")
     public CompletableFuture<ResponseEntity<ScreeningResponseDTO>> getScreeningById(@PathVariable Long id) {
         return screeningService.getScreeningById(id)
@@ -35,9 +54,34 @@ public class ScreeningController {
                 .thenApply(ResponseEntity::ok);
     }
 
-    @GetMapping("/movie/{movieId}")
-    public CompletableFuture<ResponseEntity<List<ScreeningResponseDTO>>> getScreeningsByMovie(@PathVariable Long movieId) {
-        return screeningService.getScreeningsByMovie(movieId)
+    @GetMapping("/{id}/seats/recommendations")
+    public CompletableFuture<ResponseEntity<List<SeatBlockDTO>>> getSeatRecommendations(
+            @PathVariable Long id,
+            @RequestParam int seats,
+            @RequestParam(required = false) Integer limit) {
+        return seatRecommendationService.getRecommendations(id, seats, limit)
                 .thenApply(ResponseEntity::ok);
     }
+
+    @GetMapping(value = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatUpdates(@PathVariable Long id) {
+        return seatMapStreamService.subscribe(id);
+    }
+
+    @GetMapping("/movie/{movieId}")
+    public CompletableFuture<ResponseEntity<List<ScreeningResponseDTO>>> getScreeningsByMovie(
+            @PathVariable Long movieId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        // Without a page size the full list is returned, as before
+        Pageable pageable = size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page == null ? 0 : page, size);
+        return screeningService.getScreeningsByMovie(movieId, from, to, pageable)
+                .thenApply(result -> ResponseEntity.ok()
+                        .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                        .body(result.getContent()));
+    }
 } 
\ No newline at end of file
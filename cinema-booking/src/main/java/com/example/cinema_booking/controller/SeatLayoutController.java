@@ -0,0 +1,36 @@
+package com.example.cinema_booking.controller;
+
+import com.example.cinema_booking.dto.request.SeatLayoutRequestDTO;
+import com.example.cinema_booking.dto.response.SeatLayoutResponseDTO;
+import com.example.cinema_booking.service.SeatLayoutService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/layouts")
+@RequiredArgsConstructor
+public class SeatLayoutController {
+    private final SeatLayoutService seatLayoutService;
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<SeatLayoutResponseDTO>> createLayout(@RequestBody SeatLayoutRequestDTO request) {
+        return seatLayoutService.createLayout(request)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<SeatLayoutResponseDTO>>> getAllLayouts() {
+        return seatLayoutService.getAllLayouts()
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<SeatLayoutResponseDTO>> getLayoutById(@PathVariable Long id) {
+        return seatLayoutService.getLayoutById(id)
+                .thenApply(ResponseEntity::ok);
+    }
+}
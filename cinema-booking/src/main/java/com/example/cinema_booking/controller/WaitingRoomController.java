@@ -0,0 +1,31 @@
+package com.example.cinema_booking.controller;
+
+import com.example.cinema_booking.dto.response.WaitingRoomTicketDTO;
+import com.example.cinema_booking.service.WaitingRoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+    private final WaitingRoomService waitingRoomService;
+
+    @PostMapping("/screenings/{screeningId}")
+    public ResponseEntity<WaitingRoomTicketDTO> join(@PathVariable Long screeningId) {
+        return ResponseEntity.ok(waitingRoomService.join(screeningId));
+    }
+
+    @GetMapping("/tickets/{token}")
+    public ResponseEntity<WaitingRoomTicketDTO> getTicket(@PathVariable String token) {
+        return ResponseEntity.ok(waitingRoomService.getTicket(token));
+    }
+
+    // Ends the session (or leaves the queue) so the next client is admitted right away
+    @DeleteMapping("/tickets/{token}")
+    public ResponseEntity<Void> leave(@PathVariable String token) {
+        waitingRoomService.leave(token);
+        return ResponseEntity.ok().build();
+    }
+}
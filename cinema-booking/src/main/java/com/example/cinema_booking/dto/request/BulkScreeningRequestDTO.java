@@ -0,0 +1,16 @@
+package com.example.cinema_booking.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkScreeningRequestDTO {
+    List<ScreeningRequestDTO> screenings;
+}
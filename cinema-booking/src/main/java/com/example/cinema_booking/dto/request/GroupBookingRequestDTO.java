@@ -0,0 +1,20 @@
+package com.example.cinema_booking.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GroupBookingRequestDTO {
+    Long screeningId;
+    List<Long> seatIds;
+    String customerName;
+    String customerEmail;
+    String customerPhone;
+}
@@ -17,4 +17,6 @@ public class ScreeningRequestDTO {
     Integer totalSeats;
     Integer rowCount;
     Integer seatsPerRow;
+    // When set, rows and seats come from the layout template instead of rowCount x seatsPerRow
+    Long layoutId;
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.cinema_booking.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SeatLayoutRequestDTO {
+    String name;
+    // One string per row, front to back, e.g. "SSSS..SSSS"
+    List<String> rows;
+}
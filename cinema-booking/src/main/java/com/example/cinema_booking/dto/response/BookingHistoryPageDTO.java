@@ -0,0 +1,14 @@
+package com.example.cinema_booking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BookingHistoryPageDTO {
+    private List<BookingResponseDTO> bookings;
+    // Opaque keyset cursor for the next page; null on the last page
+    private String nextCursor;
+}
@@ -4,11 +4,13 @@ import com.example.cinema_booking.entity.Booking;
 import com.example.cinema_booking.enums.BookingStatus;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@Jacksonized
 public class BookingResponseDTO {
     private Long id;
     private String customerName;
@@ -0,0 +1,18 @@
+package com.example.cinema_booking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LockStripeStatsDTO {
+    private int stripe;
+    private long acquisitions;
+    private long contendedAcquisitions;
+    private long timeouts;
+    private long totalWaitMillis;
+    private long maxWaitMillis;
+    private int queueLength;
+    private boolean locked;
+    private Long lastScreeningId;
+}
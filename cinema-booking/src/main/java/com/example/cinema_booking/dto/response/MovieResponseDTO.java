@@ -3,9 +3,11 @@ package com.example.cinema_booking.dto.response;
 import com.example.cinema_booking.entity.Movie;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 @Data
 @Builder
+@Jacksonized
 public class MovieResponseDTO {
     private Long id;
     private String title;
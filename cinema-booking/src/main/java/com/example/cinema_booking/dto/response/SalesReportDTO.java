@@ -0,0 +1,56 @@
+package com.example.cinema_booking.dto.response;
+
+import com.example.cinema_booking.repository.SalesTotalsView;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder(toBuilder = true)
+public class SalesReportDTO {
+    // Group key: only the fields of the requested grouping are set
+    private Long movieId;
+    private String movieTitle;
+    private LocalDate date;
+    private Integer hour;
+
+    private long screenings;
+    private long capacity;
+    private long bookings;
+    private long confirmations;
+    private long cancellations;
+    private long expirations;
+    // Bookings still held (pending or confirmed)
+    private long seatsSold;
+    private double revenue;
+    private double confirmedRevenue;
+    // seatsSold / capacity, 0..1
+    private double fillRate;
+
+    public static SalesReportDTO fromTotals(SalesTotalsView totals) {
+        long capacity = valueOf(totals.getCapacity());
+        long seatsSold = valueOf(totals.getBookings()) - valueOf(totals.getCancellations())
+                - valueOf(totals.getExpirations());
+        return SalesReportDTO.builder()
+                .screenings(valueOf(totals.getScreenings()))
+                .capacity(capacity)
+                .bookings(valueOf(totals.getBookings()))
+                .confirmations(valueOf(totals.getConfirmations()))
+                .cancellations(valueOf(totals.getCancellations()))
+                .expirations(valueOf(totals.getExpirations()))
+                .seatsSold(seatsSold)
+                .revenue(round(totals.getRevenue()))
+                .confirmedRevenue(round(totals.getConfirmedRevenue()))
+                .fillRate(capacity == 0 ? 0 : Math.round(seatsSold * 10000.0 / capacity) / 10000.0)
+                .build();
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static double round(Double amount) {
+        return amount == null ? 0 : Math.round(amount * 100) / 100.0;
+    }
+}
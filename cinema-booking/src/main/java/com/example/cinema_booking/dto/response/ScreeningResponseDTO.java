@@ -3,11 +3,13 @@ package com.example.cinema_booking.dto.response;
 import com.example.cinema_booking.entity.Screening;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@Jacksonized
 public class ScreeningResponseDTO {
     private Long id;
     private MovieResponseDTO movie;
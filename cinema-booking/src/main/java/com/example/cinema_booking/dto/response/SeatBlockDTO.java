@@ -0,0 +1,21 @@
+package com.example.cinema_booking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@Jacksonized
+public class SeatBlockDTO {
+    private String seatRow;
+    private List<Long> seatIds;
+    private List<String> seatNumbers;
+    // Lower is better: distance from the centre of the hall plus penalties
+    private double score;
+    // Set only when the block was reserved
+    private LocalDateTime reservedUntil;
+}
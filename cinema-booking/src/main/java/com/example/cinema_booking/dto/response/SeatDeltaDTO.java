@@ -0,0 +1,12 @@
+package com.example.cinema_booking.dto.response;
+
+import com.example.cinema_booking.enums.SeatStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SeatDeltaDTO {
+    private Long seatId;
+    private SeatStatus status;
+}
@@ -0,0 +1,14 @@
+package com.example.cinema_booking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SeatDeltaFrameDTO {
+    private Long screeningId;
+    private long sequence;
+    private List<SeatDeltaDTO> seats;
+}
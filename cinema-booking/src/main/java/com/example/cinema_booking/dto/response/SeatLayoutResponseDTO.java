@@ -0,0 +1,29 @@
+package com.example.cinema_booking.dto.response;
+
+import com.example.cinema_booking.entity.SeatLayout;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SeatLayoutResponseDTO {
+    private Long id;
+    private String name;
+    private Integer rowCount;
+    private Integer rowWidth;
+    private Integer totalSeats;
+    private List<String> rows;
+
+    public static SeatLayoutResponseDTO fromEntity(SeatLayout layout) {
+        return SeatLayoutResponseDTO.builder()
+                .id(layout.getId())
+                .name(layout.getName())
+                .rowCount(layout.getRowCount())
+                .rowWidth(layout.getRowWidth())
+                .totalSeats(layout.getTotalSeats())
+                .rows(List.of(layout.getGrid().split("\n")))
+                .build();
+    }
+}
@@ -2,16 +2,21 @@ package com.example.cinema_booking.dto.response;
 
 import com.example.cinema_booking.entity.Seat;
 import com.example.cinema_booking.enums.SeatStatus;
+import com.example.cinema_booking.enums.SeatType;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 @Data
 @Builder
+@Jacksonized
 public class SeatResponseDTO {
     private Long id;
     private String seatRow;
     private String seatNumber;
     private SeatStatus status;
+    // Only known for screenings created from a layout template
+    private SeatType seatType;
 
     public static SeatResponseDTO fromEntity(Seat seat) {
         return SeatResponseDTO.builder()
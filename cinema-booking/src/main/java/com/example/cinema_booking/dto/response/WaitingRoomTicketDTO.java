@@ -0,0 +1,22 @@
+package com.example.cinema_booking.dto.response;
+
+import com.example.cinema_booking.enums.WaitingRoomStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class WaitingRoomTicketDTO {
+    // Sent back as the X-Admission-Token header once admitted
+    private String token;
+    private Long screeningId;
+    private WaitingRoomStatus status;
+    // Approximate number of clients ahead; null once admitted
+    private Integer position;
+    private Long estimatedWaitSeconds;
+    private LocalDateTime admissionExpiresAt;
+    // How long to wait before polling the ticket again
+    private Long pollAfterSeconds;
+}
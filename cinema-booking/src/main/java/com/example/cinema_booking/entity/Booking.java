@@ -8,6 +8,8 @@ import lombok.experimental.FieldDefaults;
 import java.time.LocalDateTime;
 
 @Entity
+// InnoDB appends the primary key, so this also serves the (booking_time, id) keyset order
+@Table(indexes = @Index(name = "idx_booking_customer_time", columnList = "customer_email, booking_time"))
 @Getter @Setter @Builder
 @NoArgsConstructor @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -19,7 +21,8 @@ public class Booking {
     @JoinColumn(name = "screening_id")
     Screening screening;
 
-    @OneToOne
+    // Many-to-one: a seat keeps its cancelled/expired bookings as history and can be booked again
+    @ManyToOne
     @JoinColumn(name = "seat_id")
     Seat seat;
 
@@ -0,0 +1,26 @@
+package com.example.cinema_booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Named lease held by one application instance at a time, used to elect a
+ * single runner for cluster-wide background jobs.
+ */
+@Entity
+@Getter @Setter @Builder
+@NoArgsConstructor @AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ClusterLease {
+    @Id
+    @Column(length = 100)
+    String name;
+
+    @Column(length = 100, nullable = false)
+    String owner;
+
+    LocalDateTime expiresAt;
+}
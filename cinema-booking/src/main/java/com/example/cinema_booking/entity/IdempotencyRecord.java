@@ -0,0 +1,45 @@
+package com.example.cinema_booking.entity;
+
+import com.example.cinema_booking.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a mutating request made with an Idempotency-Key header. The row is
+ * claimed as IN_PROGRESS before the request runs, so a retry landing on another
+ * instance sees it, and holds the serialized response once the request completes.
+ * The key column holds the client-scoped key, not the raw header value.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+@Getter @Setter @Builder
+@NoArgsConstructor @AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 100)
+    String idempotencyKey;
+
+    // SHA-256 of the operation and request payload, to reject a key reused for a different request
+    @Column(length = 64, nullable = false)
+    String requestHash;
+
+    // Random token of the request holding the claim; only it may renew, complete or release the row
+    @Column(length = 36)
+    String ownerToken;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    IdempotencyStatus status;
+
+    Integer responseStatus;
+
+    @Lob
+    String responseBody;
+
+    LocalDateTime createdAt;
+    LocalDateTime expiresAt;
+}
@@ -0,0 +1,52 @@
+package com.example.cinema_booking.entity;
+
+import com.example.cinema_booking.enums.OutboxEventType;
+import com.example.cinema_booking.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Work owed to downstream systems (payment, tickets, email) after a booking
+ * state change. Written in the same transaction as the change itself, so the
+ * work is recorded if and only if the change commits; OutboxDispatcher drains
+ * it in the background.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+@Getter @Setter @Builder
+@NoArgsConstructor @AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OutboxEvent {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50, nullable = false)
+    OutboxEventType eventType;
+
+    // Booking id
+    @Column(nullable = false)
+    Long aggregateId;
+
+    @Lob
+    String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    OutboxStatus status;
+
+    int attempts;
+    LocalDateTime nextAttemptAt;
+    LocalDateTime createdAt;
+    LocalDateTime processedAt;
+
+    @Column(length = 1000)
+    String lastError;
+
+    // Comma-separated names of the handlers that already delivered this event; a retry skips them
+    @Column(length = 255)
+    String deliveredHandlers;
+}
@@ -0,0 +1,52 @@
+package com.example.cinema_booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Sales and occupancy counters per movie and screening hour. Rows are only ever
+ * incremented by SalesRollupJdbcRepository upserts; reports sum them instead of
+ * scanning booking and seat.
+ */
+@Entity
+@IdClass(SalesRollup.Key.class)
+@Getter @Setter @Builder
+@NoArgsConstructor @AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SalesRollup {
+    @Id
+    Long movieId;
+
+    // Date and hour of the screening, not of the booking
+    @Id
+    LocalDate bucketDate;
+
+    @Id
+    int bucketHour;
+
+    int screenings;
+    int capacity;
+    int bookings;
+    int confirmations;
+    int cancellations;
+    int expirations;
+    // Booked minus cancelled and expired
+    double revenue;
+    double confirmedRevenue;
+    LocalDateTime updatedAt;
+
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @EqualsAndHashCode
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Key implements Serializable {
+        Long movieId;
+        LocalDate bucketDate;
+        int bucketHour;
+    }
+}
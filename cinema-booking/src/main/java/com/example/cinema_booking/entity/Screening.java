@@ -26,6 +26,12 @@ public class Screening {
 
     LocalDateTime screeningTime;
 
+    // Optional auditorium plan the seats were generated from; gives seat types and gaps
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "layout_id")
+    SeatLayout layout;
+
     @JsonIgnore
     @OneToMany(mappedBy = "screening", cascade = CascadeType.ALL)
     @Builder.Default
@@ -5,7 +5,14 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+import java.time.LocalDateTime;
+
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_seat_status_reserved_until", columnList = "status, reserved_until"),
+        @Index(name = "idx_seat_reserved_by", columnList = "reserved_by, status, reserved_until"),
+        @Index(name = "idx_seat_reserved_ip", columnList = "reserved_ip, status, reserved_until")
+})
 @Getter @Setter @Builder
 @NoArgsConstructor @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -24,9 +31,13 @@ public class Seat {
     @Builder.Default
     SeatStatus status = SeatStatus.AVAILABLE;
 
+    // Deadline of a RESERVED hold; cleared on every other transition
+    LocalDateTime reservedUntil;
+
+    // Customer email and client IP that placed the RESERVED hold; cleared with reservedUntil
+    String reservedBy;
+    String reservedIp;
+
     @Version
     Long version;
-
-    @OneToOne(mappedBy = "seat", cascade = CascadeType.ALL)
-    Booking currentBooking;
 }
@@ -0,0 +1,33 @@
+package com.example.cinema_booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Auditorium seat plan shared by every screening held in it. The grid has one
+ * line per row and one character per position: S standard, V VIP, C couple,
+ * A accessible and '.' for an aisle or gap. Layouts are immutable once created.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class SeatLayout {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(nullable = false, unique = true)
+    String name;
+
+    Integer rowCount;
+    Integer rowWidth;
+    Integer totalSeats;
+
+    @Lob
+    @Column(nullable = false)
+    String grid;
+}
@@ -0,0 +1,6 @@
+package com.example.cinema_booking.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,6 @@
+package com.example.cinema_booking.enums;
+
+public enum OutboxEventType {
+    BOOKING_CONFIRMED,
+    BOOKING_CANCELLED
+}
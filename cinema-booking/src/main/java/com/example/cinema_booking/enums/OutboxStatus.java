@@ -0,0 +1,9 @@
+package com.example.cinema_booking.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    // Claimed by a dispatcher until next_attempt_at; a lapsed claim is picked up again
+    IN_PROGRESS,
+    PROCESSED,
+    FAILED
+}
@@ -0,0 +1,28 @@
+package com.example.cinema_booking.enums;
+
+public enum SeatType {
+    STANDARD('S'),
+    VIP('V'),
+    COUPLE('C'),
+    ACCESSIBLE('A');
+
+    private final char code;
+
+    SeatType(char code) {
+        this.code = code;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    // Returns null for characters that are not a seat code (gaps)
+    public static SeatType fromCode(char code) {
+        for (SeatType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.cinema_booking.event;
+
+/**
+ * Published inside the transaction that creates, updates or deletes a movie.
+ * Listeners that keep derived copies of the catalogue react after commit.
+ */
+public record MovieChangedEvent(Long movieId, Type type) {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
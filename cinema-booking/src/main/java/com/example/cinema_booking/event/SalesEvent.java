@@ -0,0 +1,19 @@
+package com.example.cinema_booking.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published inside the transaction of a booking or screening state change, with
+ * what the sales rollups need: the movie, the screening time that picks the
+ * bucket, how many seats and how much money moved. Applied after commit.
+ */
+public record SalesEvent(Type type, Long movieId, LocalDateTime screeningTime, int seats, double amount) {
+    public enum Type {
+        // seats = capacity of the new screening
+        SCREENING_SCHEDULED,
+        BOOKED,
+        CONFIRMED,
+        CANCELLED,
+        EXPIRED
+    }
+}
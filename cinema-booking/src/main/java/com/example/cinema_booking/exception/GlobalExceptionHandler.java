@@ -1,6 +1,7 @@
 package com.example.cinema_booking.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -59,6 +60,32 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.UNPROCESSABLE_ENTITY.value());
+        body.put("error", "Idempotency Key Reused");
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    // Load shedding: tells the client when to come back instead of letting it hammer the booking path
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", ex.getMessage());
+        body.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
     @ExceptionHandler(TimeoutException.class)
     public ResponseEntity<Map<String, Object>> handleTimeoutException(TimeoutException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -77,6 +104,14 @@ public class GlobalExceptionHandler {
             return handleBookingException((BookingException) cause);
         } else if (cause instanceof ConcurrencyException) {
             return handleConcurrencyException((ConcurrencyException) cause);
+        } else if (cause instanceof SeatLockException) {
+            return handleSeatLockException((SeatLockException) cause);
+        } else if (cause instanceof ResourceNotFoundException) {
+            return handleResourceNotFoundException((ResourceNotFoundException) cause);
+        } else if (cause instanceof IdempotencyKeyReuseException) {
+            return handleIdempotencyKeyReuseException((IdempotencyKeyReuseException) cause);
+        } else if (cause instanceof TooManyRequestsException) {
+            return handleTooManyRequestsException((TooManyRequestsException) cause);
         }
 
         Map<String, Object> body = new HashMap<>();
@@ -0,0 +1,30 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.enums.BookingStatus;
+import com.example.cinema_booking.enums.SeatStatus;
+
+import java.time.LocalDateTime;
+
+// One flat row per booking with its screening, movie and seat columns
+public interface BookingHistoryView {
+    Long getId();
+    String getCustomerName();
+    String getCustomerEmail();
+    String getCustomerPhone();
+    LocalDateTime getBookingTime();
+    BookingStatus getStatus();
+    double getTotalPrice();
+    Long getScreeningId();
+    LocalDateTime getScreeningTime();
+    Integer getTotalSeats();
+    Integer getAvailableSeats();
+    Long getMovieId();
+    String getMovieTitle();
+    String getMovieGenre();
+    String getMovieDescription();
+    double getMovieTicketPrice();
+    Long getSeatId();
+    String getSeatRow();
+    String getSeatNumber();
+    SeatStatus getSeatStatus();
+}
@@ -0,0 +1,68 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.entity.Booking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for booking rows. Booking ids use IDENTITY generation, which
+ * makes Hibernate insert one row per statement; going through a JDBC batch lets
+ * the driver send the whole group in one round trip (and rewrite it into a
+ * multi-row INSERT when rewriteBatchedStatements is enabled).
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingJdbcRepository {
+    private static final String INSERT_SQL =
+            "INSERT INTO booking (screening_id, seat_id, booking_time, expiration_time, status, " +
+            "customer_name, customer_email, customer_phone, total_price, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inserts the bookings in one batch and assigns the generated ids back onto them
+    public void insertAll(List<Booking> bookings) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking booking = bookings.get(i);
+                        ps.setLong(1, booking.getScreening().getId());
+                        ps.setLong(2, booking.getSeat().getId());
+                        ps.setTimestamp(3, Timestamp.valueOf(booking.getBookingTime()));
+                        ps.setTimestamp(4, Timestamp.valueOf(booking.getExpirationTime()));
+                        ps.setString(5, booking.getStatus().name());
+                        ps.setString(6, booking.getCustomerName());
+                        ps.setString(7, booking.getCustomerEmail());
+                        ps.setString(8, booking.getCustomerPhone());
+                        ps.setDouble(9, booking.getTotalPrice());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size() && i < keys.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            bookings.get(i).setId(id.longValue());
+            bookings.get(i).setVersion(0L);
+        }
+    }
+}
@@ -4,11 +4,23 @@ import com.example.cinema_booking.entity.Booking;
 import com.example.cinema_booking.entity.Screening;
 import com.example.cinema_booking.entity.Seat;
 import com.example.cinema_booking.enums.BookingStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -16,5 +28,60 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     Optional<Booking> findByScreeningAndSeatAndStatus(Screening screening, Seat seat, BookingStatus status);
     
-    List<Booking> findByCustomerEmailOrderByBookingTimeDesc(String email);
+    String HISTORY_SELECT = "SELECT b.id AS id, b.customerName AS customerName, b.customerEmail AS customerEmail, " +
+            "b.customerPhone AS customerPhone, b.bookingTime AS bookingTime, b.status AS status, " +
+            "b.totalPrice AS totalPrice, s.id AS screeningId, s.screeningTime AS screeningTime, " +
+            "s.totalSeats AS totalSeats, s.availableSeats AS availableSeats, " +
+            "m.id AS movieId, m.title AS movieTitle, m.genre AS movieGenre, " +
+            "m.description AS movieDescription, m.ticketPrice AS movieTicketPrice, " +
+            "seat.id AS seatId, seat.seatRow AS seatRow, seat.seatNumber AS seatNumber, seat.status AS seatStatus " +
+            "FROM Booking b JOIN b.seat seat JOIN seat.screening s JOIN s.movie m " +
+            "WHERE b.customerEmail = :email ";
+    String HISTORY_ORDER = "ORDER BY b.bookingTime DESC, b.id DESC";
+
+    // Booking history as flat projections walking idx_booking_customer_time; no entity hydration
+    @Query(HISTORY_SELECT + HISTORY_ORDER)
+    List<BookingHistoryView> findHistoryByEmail(@Param("email") String email, Pageable pageable);
+
+    // Keyset continuation: seeks past the last row of the previous page instead of counting an OFFSET
+    @Query(HISTORY_SELECT +
+           "AND (b.bookingTime < :bookingTime OR (b.bookingTime = :bookingTime AND b.id < :id)) " +
+           HISTORY_ORDER)
+    List<BookingHistoryView> findHistoryByEmailAfter(@Param("email") String email,
+                                                     @Param("bookingTime") LocalDateTime bookingTime,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    // MIN_VALUE fetch size makes Connector/J stream rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query(HISTORY_SELECT + HISTORY_ORDER)
+    Stream<BookingHistoryView> streamHistoryByEmail(@Param("email") String email);
+
+    @Query("SELECT b FROM Booking b WHERE b.seat.id = :seatId AND b.status = :status")
+    Optional<Booking> findBySeatIdAndStatus(@Param("seatId") Long seatId, @Param("status") BookingStatus status);
+
+    // Resolves the lock key for cancel/confirm without hydrating the booking graph
+    @Query("SELECT b.seat.screening.id FROM Booking b WHERE b.id = :id")
+    Optional<Long> findScreeningIdById(@Param("id") Long id);
+
+    @Query("SELECT s.movie.id AS movieId, s.screeningTime AS screeningTime, b.totalPrice AS totalPrice " +
+           "FROM Booking b JOIN b.screening s WHERE b.id = :id")
+    Optional<BookingSalesView> findSalesViewById(@Param("id") Long id);
+
+    // Row locks keep a concurrent confirm from racing the expiry of the same booking
+    // SKIP LOCKED (lock timeout -2): concurrent sweepers take disjoint batches instead of queueing on the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM Booking b " +
+           "WHERE b.status = com.example.cinema_booking.enums.BookingStatus.PENDING AND b.expirationTime <= :now " +
+           "ORDER BY b.id")
+    List<Booking> findExpiredPendingForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Compare-and-set on the status, so a confirm cannot race a cancel or expiry on any instance
+    @Modifying
+    @Transactional
+    @Query("UPDATE Booking b SET b.status = com.example.cinema_booking.enums.BookingStatus.CONFIRMED, " +
+           "b.version = b.version + 1 " +
+           "WHERE b.id = :id AND b.status = com.example.cinema_booking.enums.BookingStatus.PENDING")
+    int confirmPending(@Param("id") Long id);
 } 
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.cinema_booking.repository;
+
+import java.time.LocalDateTime;
+
+// What the sales rollups need to know about one booking
+public interface BookingSalesView {
+    Long getMovieId();
+    LocalDateTime getScreeningTime();
+    double getTotalPrice();
+}
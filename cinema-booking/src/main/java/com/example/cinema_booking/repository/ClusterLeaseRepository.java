@@ -0,0 +1,37 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.entity.ClusterLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ClusterLeaseRepository extends JpaRepository<ClusterLease, String> {
+    // Renews our own lease or takes over an expired one; the row lock makes it a compare-and-set
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClusterLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int renew(@Param("name") String name,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO cluster_lease (name, owner, expires_at) VALUES (:name, :owner, :expiresAt)",
+           nativeQuery = true)
+    int create(@Param("name") String name,
+               @Param("owner") String owner,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClusterLease l SET l.expiresAt = :now WHERE l.owner = :owner")
+    int releaseAll(@Param("owner") String owner, @Param("now") LocalDateTime now);
+}
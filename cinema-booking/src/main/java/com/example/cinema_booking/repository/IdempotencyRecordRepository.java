@@ -0,0 +1,63 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    // Plain INSERT so a concurrent claim of the same key fails on the primary key instead of merging
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_record (idempotency_key, request_hash, owner_token, status, created_at, expires_at) " +
+                   "VALUES (:key, :requestHash, :ownerToken, 'IN_PROGRESS', :now, :expiresAt)",
+           nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("ownerToken") String ownerToken,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r " +
+           "SET r.status = com.example.cinema_booking.enums.IdempotencyStatus.COMPLETED, " +
+           "r.responseStatus = :responseStatus, r.responseBody = :responseBody, r.expiresAt = :expiresAt " +
+           "WHERE r.idempotencyKey = :key AND r.ownerToken = :ownerToken " +
+           "AND r.status = com.example.cinema_booking.enums.IdempotencyStatus.IN_PROGRESS")
+    int complete(@Param("key") String key,
+                 @Param("ownerToken") String ownerToken,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.ownerToken = :ownerToken " +
+           "AND r.status = com.example.cinema_booking.enums.IdempotencyStatus.IN_PROGRESS")
+    int release(@Param("key") String key, @Param("ownerToken") String ownerToken);
+
+    // Pushes back the expiry of claims whose requests are still running, so they are not taken over
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.expiresAt = :expiresAt WHERE r.ownerToken IN :ownerTokens " +
+           "AND r.status = com.example.cinema_booking.enums.IdempotencyStatus.IN_PROGRESS")
+    int renew(@Param("ownerTokens") Collection<String> ownerTokens, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,69 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.entity.OutboxEvent;
+import com.example.cinema_booking.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Due events and lapsed claims. SKIP LOCKED (lock timeout -2): a dispatcher that overlaps
+    // another one, e.g. around a lease handover, takes a disjoint batch; claim in the same transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e " +
+           "WHERE e.status IN (com.example.cinema_booking.enums.OutboxStatus.PENDING, " +
+           "com.example.cinema_booking.enums.OutboxStatus.IN_PROGRESS) AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.id")
+    List<OutboxEvent> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = com.example.cinema_booking.enums.OutboxStatus.IN_PROGRESS, " +
+           "e.nextAttemptAt = :claimedUntil " +
+           "WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.deliveredHandlers = :deliveredHandlers WHERE e.id = :id")
+    int recordDelivered(@Param("id") Long id, @Param("deliveredHandlers") String deliveredHandlers);
+
+    // One statement for the whole successful part of a batch
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.status = com.example.cinema_booking.enums.OutboxStatus.PROCESSED, " +
+           "e.attempts = e.attempts + 1, e.processedAt = :now, e.lastError = NULL " +
+           "WHERE e.id IN :ids AND e.status = com.example.cinema_booking.enums.OutboxStatus.IN_PROGRESS")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = e.attempts + 1, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error " +
+           "WHERE e.id = :id AND e.status = com.example.cinema_booking.enums.OutboxStatus.IN_PROGRESS")
+    int recordFailure(@Param("id") Long id,
+                      @Param("status") OutboxStatus status,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e " +
+           "WHERE e.status = com.example.cinema_booking.enums.OutboxStatus.PROCESSED AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(OutboxStatus status);
+}
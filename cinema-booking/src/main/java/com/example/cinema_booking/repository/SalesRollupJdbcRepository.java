@@ -0,0 +1,67 @@
+package com.example.cinema_booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Additive upserts into sales_rollup: each row of the batch adds its deltas to
+ * the bucket, creating it on first use. Additions commute, so instances can
+ * flush independently without reading the current values.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupJdbcRepository {
+    private static final String UPSERT_SQL =
+            "INSERT INTO sales_rollup (movie_id, bucket_date, bucket_hour, screenings, capacity, bookings, " +
+            "confirmations, cancellations, expirations, revenue, confirmed_revenue, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE screenings = screenings + VALUES(screenings), " +
+            "capacity = capacity + VALUES(capacity), bookings = bookings + VALUES(bookings), " +
+            "confirmations = confirmations + VALUES(confirmations), " +
+            "cancellations = cancellations + VALUES(cancellations), " +
+            "expirations = expirations + VALUES(expirations), revenue = revenue + VALUES(revenue), " +
+            "confirmed_revenue = confirmed_revenue + VALUES(confirmed_revenue), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Delta(Long movieId, LocalDate bucketDate, int bucketHour, int screenings, int capacity,
+                        int bookings, int confirmations, int cancellations, int expirations,
+                        double revenue, double confirmedRevenue) {
+    }
+
+    public void addAll(List<Delta> deltas, LocalDateTime now) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Delta delta = deltas.get(i);
+                ps.setLong(1, delta.movieId());
+                ps.setDate(2, Date.valueOf(delta.bucketDate()));
+                ps.setInt(3, delta.bucketHour());
+                ps.setInt(4, delta.screenings());
+                ps.setInt(5, delta.capacity());
+                ps.setInt(6, delta.bookings());
+                ps.setInt(7, delta.confirmations());
+                ps.setInt(8, delta.cancellations());
+                ps.setInt(9, delta.expirations());
+                ps.setDouble(10, delta.revenue());
+                ps.setDouble(11, delta.confirmedRevenue());
+                ps.setTimestamp(12, Timestamp.valueOf(now));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+}
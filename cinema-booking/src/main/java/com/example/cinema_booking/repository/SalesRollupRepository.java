@@ -0,0 +1,41 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.entity.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Report reads over the rollup table only; (movie_id, bucket_date) and (bucket_date, bucket_hour) are indexed
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollup.Key> {
+    String TOTALS = "SUM(r.screenings) AS screenings, SUM(r.capacity) AS capacity, " +
+                    "SUM(r.bookings) AS bookings, SUM(r.confirmations) AS confirmations, " +
+                    "SUM(r.cancellations) AS cancellations, SUM(r.expirations) AS expirations, " +
+                    "SUM(r.revenue) AS revenue, SUM(r.confirmedRevenue) AS confirmedRevenue ";
+    String RANGE = "WHERE r.bucketDate BETWEEN :from AND :to AND (:movieId IS NULL OR r.movieId = :movieId) ";
+
+    @Query("SELECT r.movieId AS movieId, m.title AS movieTitle, " + TOTALS +
+           "FROM SalesRollup r JOIN Movie m ON m.id = r.movieId " + RANGE +
+           "GROUP BY r.movieId, m.title ORDER BY SUM(r.revenue) DESC")
+    List<SalesTotalsView.ByMovie> sumByMovie(@Param("from") LocalDate from,
+                                             @Param("to") LocalDate to,
+                                             @Param("movieId") Long movieId);
+
+    @Query("SELECT r.bucketDate AS bucketDate, " + TOTALS +
+           "FROM SalesRollup r " + RANGE +
+           "GROUP BY r.bucketDate ORDER BY r.bucketDate")
+    List<SalesTotalsView.ByDay> sumByDay(@Param("from") LocalDate from,
+                                         @Param("to") LocalDate to,
+                                         @Param("movieId") Long movieId);
+
+    @Query("SELECT r.bucketHour AS bucketHour, " + TOTALS +
+           "FROM SalesRollup r " + RANGE +
+           "GROUP BY r.bucketHour ORDER BY r.bucketHour")
+    List<SalesTotalsView.ByHour> sumByHour(@Param("from") LocalDate from,
+                                           @Param("to") LocalDate to,
+                                           @Param("movieId") Long movieId);
+}
@@ -0,0 +1,28 @@
+package com.example.cinema_booking.repository;
+
+import java.time.LocalDate;
+
+// Summed sales_rollup counters for one report group; the nested views add the group key
+public interface SalesTotalsView {
+    Long getScreenings();
+    Long getCapacity();
+    Long getBookings();
+    Long getConfirmations();
+    Long getCancellations();
+    Long getExpirations();
+    Double getRevenue();
+    Double getConfirmedRevenue();
+
+    interface ByMovie extends SalesTotalsView {
+        Long getMovieId();
+        String getMovieTitle();
+    }
+
+    interface ByDay extends SalesTotalsView {
+        LocalDate getBucketDate();
+    }
+
+    interface ByHour extends SalesTotalsView {
+        Integer getBucketHour();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.entity.Screening;
+import com.example.cinema_booking.enums.SeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for schedule imports. Seats are never loaded as entities here:
+ * each grid is expanded straight into batched INSERT parameters, so a 400-seat
+ * hall is a single round trip instead of 400 identity inserts through Hibernate.
+ */
+@Repository
+public class ScreeningJdbcRepository {
+    private static final String INSERT_SCREENING_SQL =
+            "INSERT INTO screening (movie_id, layout_id, screening_time, total_seats, available_seats, version) " +
+            "VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_SEAT_SQL =
+            "INSERT INTO seat (screening_id, seat_row, seat_number, status, version) VALUES (?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ScreeningJdbcRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${booking.screening.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /** Seats of one screening, as row labels with the number of seats in each row. */
+    public record SeatGrid(Long screeningId, List<RowSeats> rows) {
+    }
+
+    public record RowSeats(String label, int seats) {
+    }
+
+    private record SeatRow(Long screeningId, String seatRow, String seatNumber) {
+    }
+
+    // Inserts the screenings in one batch and assigns the generated ids back onto them
+    public void insertScreenings(List<Screening> screenings) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SCREENING_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Screening screening = screenings.get(i);
+                        ps.setLong(1, screening.getMovie().getId());
+                        if (screening.getLayout() != null) {
+                            ps.setLong(2, screening.getLayout().getId());
+                        } else {
+                            ps.setNull(2, Types.BIGINT);
+                        }
+                        ps.setTimestamp(3, Timestamp.valueOf(screening.getScreeningTime()));
+                        ps.setInt(4, screening.getTotalSeats());
+                        ps.setInt(5, screening.getAvailableSeats());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return screenings.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < screenings.size() && i < keys.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            screenings.get(i).setId(id.longValue());
+            screenings.get(i).setVersion(0L);
+        }
+    }
+
+    // Writes every seat of every grid as AVAILABLE, in JDBC batches of batchSize rows
+    public int insertSeats(List<SeatGrid> grids) {
+        List<SeatRow> pending = new ArrayList<>(batchSize);
+        int inserted = 0;
+        for (SeatGrid grid : grids) {
+            for (RowSeats row : grid.rows()) {
+                for (int seatNumber = 1; seatNumber <= row.seats(); seatNumber++) {
+                    pending.add(new SeatRow(grid.screeningId(), row.label(), String.valueOf(seatNumber)));
+                    if (pending.size() == batchSize) {
+                        inserted += flushSeats(pending);
+                    }
+                }
+            }
+        }
+        return inserted + flushSeats(pending);
+    }
+
+    private int flushSeats(List<SeatRow> seats) {
+        if (seats.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SEAT_SQL, seats, seats.size(), (ps, seat) -> {
+            ps.setLong(1, seat.screeningId());
+            ps.setString(2, seat.seatRow());
+            ps.setString(3, seat.seatNumber());
+            ps.setString(4, SeatStatus.AVAILABLE.name());
+        });
+        int count = seats.size();
+        seats.clear();
+        return count;
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.cinema_booking.repository;
 
 import com.example.cinema_booking.entity.Screening;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +19,43 @@ public interface ScreeningRepository extends JpaRepository<Screening, Long> {
            "LEFT JOIN FETCH s.movie " +
            "WHERE s.id = :id")
     Optional<Screening> findByIdWithSeats(@Param("id") Long id);
+
+    @Query("SELECT s FROM Screening s " +
+           "JOIN FETCH s.movie " +
+           "WHERE s.id = :id")
+    Optional<Screening> findByIdWithMovie(@Param("id") Long id);
+
+    // Screenings of a movie with their available-seat count in a single statement, no entity hydration
+    @Query(value = "SELECT s.id AS id, s.screeningTime AS screeningTime, s.totalSeats AS totalSeats, " +
+                   "(SELECT COUNT(seat.id) FROM Seat seat WHERE seat.screening = s " +
+                   "AND seat.status = com.example.cinema_booking.enums.SeatStatus.AVAILABLE) AS availableSeats, " +
+                   "m.id AS movieId, m.title AS movieTitle, m.genre AS movieGenre, " +
+                   "m.description AS movieDescription, m.ticketPrice AS movieTicketPrice " +
+                   "FROM Screening s JOIN s.movie m " +
+                   "WHERE m.id = :movieId " +
+                   "AND (:from IS NULL OR s.screeningTime >= :from) " +
+                   "AND (:to IS NULL OR s.screeningTime < :to) " +
+                   "ORDER BY s.screeningTime, s.id",
+           countQuery = "SELECT COUNT(s) FROM Screening s " +
+                        "WHERE s.movie.id = :movieId " +
+                        "AND (:from IS NULL OR s.screeningTime >= :from) " +
+                        "AND (:to IS NULL OR s.screeningTime < :to)")
+    Page<ScreeningSummaryView> findSummariesByMovieId(@Param("movieId") Long movieId,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to,
+                                                      Pageable pageable);
+
+    @Query("SELECT s.screeningTime AS screeningTime, l.id AS layoutId " +
+           "FROM Screening s LEFT JOIN s.layout l WHERE s.id = :id")
+    Optional<ScreeningSeatMapView> findSeatMapInfoById(@Param("id") Long id);
+
+    // Recomputes the denormalised counter from the seat rows in one statement; leaves the
+    // version alone so it never fails an optimistic update of the screening itself
+    @Modifying
+    @Transactional
+    @Query("UPDATE Screening s SET s.availableSeats = " +
+           "(SELECT COUNT(seat.id) FROM Seat seat WHERE seat.screening = s " +
+           "AND seat.status = com.example.cinema_booking.enums.SeatStatus.AVAILABLE) " +
+           "WHERE s.screeningTime >= :from")
+    int refreshAvailableSeats(@Param("from") LocalDateTime from);
 } 
\ No newline at end of file
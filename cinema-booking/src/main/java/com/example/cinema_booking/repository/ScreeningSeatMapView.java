@@ -0,0 +1,8 @@
+package com.example.cinema_booking.repository;
+
+import java.time.LocalDateTime;
+
+public interface ScreeningSeatMapView {
+    LocalDateTime getScreeningTime();
+    Long getLayoutId();
+}
@@ -0,0 +1,16 @@
+package com.example.cinema_booking.repository;
+
+import java.time.LocalDateTime;
+
+// One row per screening with its movie columns and live available-seat count
+public interface ScreeningSummaryView {
+    Long getId();
+    LocalDateTime getScreeningTime();
+    Integer getTotalSeats();
+    Long getAvailableSeats();
+    Long getMovieId();
+    String getMovieTitle();
+    String getMovieGenre();
+    String getMovieDescription();
+    double getMovieTicketPrice();
+}
@@ -0,0 +1,6 @@
+package com.example.cinema_booking.repository;
+
+public interface SeatHoldView {
+    Long getId();
+    Long getScreeningId();
+}
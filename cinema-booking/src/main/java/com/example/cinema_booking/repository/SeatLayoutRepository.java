@@ -0,0 +1,10 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.entity.SeatLayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeatLayoutRepository extends JpaRepository<SeatLayout, Long> {
+    boolean existsByName(String name);
+}
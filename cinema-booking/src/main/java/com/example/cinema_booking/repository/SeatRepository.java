@@ -1,9 +1,99 @@
 package com.example.cinema_booking.repository;
 
 import com.example.cinema_booking.entity.Seat;
+import com.example.cinema_booking.enums.SeatStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface SeatRepository extends JpaRepository<Seat, Long> {
-} 
\ No newline at end of file
+    // Atomic compare-and-set on the seat status: returns 1 if this caller won the seat, 0 otherwise
+    @Modifying
+    @Transactional
+    @Query("UPDATE Seat s SET s.status = :newStatus, s.reservedUntil = NULL, s.reservedBy = NULL, " +
+           "s.reservedIp = NULL, s.version = s.version + 1 " +
+           "WHERE s.id = :seatId AND s.screening.id = :screeningId AND s.status IN :expectedStatuses")
+    int claimSeat(@Param("screeningId") Long screeningId,
+                  @Param("seatId") Long seatId,
+                  @Param("expectedStatuses") Collection<SeatStatus> expectedStatuses,
+                  @Param("newStatus") SeatStatus newStatus);
+
+    // All-or-nothing variant for group bookings; callers compare the count with the number of ids
+    @Modifying
+    @Transactional
+    @Query("UPDATE Seat s SET s.status = :newStatus, s.reservedUntil = NULL, s.reservedBy = NULL, " +
+           "s.reservedIp = NULL, s.version = s.version + 1 " +
+           "WHERE s.id IN :seatIds AND s.screening.id = :screeningId AND s.status IN :expectedStatuses")
+    int claimSeats(@Param("screeningId") Long screeningId,
+                   @Param("seatIds") Collection<Long> seatIds,
+                   @Param("expectedStatuses") Collection<SeatStatus> expectedStatuses,
+                   @Param("newStatus") SeatStatus newStatus);
+
+    // Places timed holds on all of the seats that are still AVAILABLE, unless that would take the customer
+    // or the client IP past maxHolds. The holds already placed are counted inside the same statement, which
+    // reads them with shared locks, so concurrent holds by one holder serialize instead of both passing the
+    // cap. The aggregates keep MySQL from merging the derived tables into the update. Callers compare the
+    // count with the number of ids; reservedUntil is what the expiry sweeper keys on
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE seat SET status = 'RESERVED', reserved_until = :reservedUntil, " +
+                   "reserved_by = :customer, reserved_ip = :clientIp, version = version + 1 " +
+                   "WHERE id IN (:seatIds) AND screening_id = :screeningId AND status = 'AVAILABLE' " +
+                   "AND (SELECT held.n FROM (SELECT COUNT(*) AS n FROM seat WHERE reserved_by = :customer " +
+                   "AND status = 'RESERVED' AND reserved_until > :now) held) + :requested <= :maxHolds " +
+                   "AND (SELECT held.n FROM (SELECT COUNT(*) AS n FROM seat WHERE reserved_ip = :clientIp " +
+                   "AND status = 'RESERVED' AND reserved_until > :now) held) + :requested <= :maxClientHolds",
+           nativeQuery = true)
+    int holdSeats(@Param("screeningId") Long screeningId,
+                  @Param("seatIds") Collection<Long> seatIds,
+                  @Param("requested") int requested,
+                  @Param("reservedUntil") LocalDateTime reservedUntil,
+                  @Param("customer") String customer,
+                  @Param("clientIp") String clientIp,
+                  @Param("now") LocalDateTime now,
+                  @Param("maxHolds") int maxHolds,
+                  @Param("maxClientHolds") int maxClientHolds);
+
+    @Query("SELECT COUNT(s) FROM Seat s WHERE s.reservedBy = :customer " +
+           "AND s.status = com.example.cinema_booking.enums.SeatStatus.RESERVED AND s.reservedUntil > :now")
+    long countActiveHolds(@Param("customer") String customer, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(s) FROM Seat s WHERE s.reservedIp = :clientIp " +
+           "AND s.status = com.example.cinema_booking.enums.SeatStatus.RESERVED AND s.reservedUntil > :now")
+    long countActiveClientHolds(@Param("clientIp") String clientIp, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Seat s SET s.status = com.example.cinema_booking.enums.SeatStatus.AVAILABLE, " +
+           "s.reservedUntil = NULL, s.reservedBy = NULL, s.reservedIp = NULL, s.version = s.version + 1 " +
+           "WHERE s.id IN :seatIds AND s.status = com.example.cinema_booking.enums.SeatStatus.RESERVED " +
+           "AND s.reservedUntil <= :now")
+    int releaseExpiredHolds(@Param("seatIds") Collection<Long> seatIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Seat s SET s.status = com.example.cinema_booking.enums.SeatStatus.AVAILABLE, " +
+           "s.reservedUntil = NULL, s.reservedBy = NULL, s.reservedIp = NULL, s.version = s.version + 1 " +
+           "WHERE s.id IN :seatIds AND s.status = :expectedStatus")
+    int releaseSeats(@Param("seatIds") Collection<Long> seatIds, @Param("expectedStatus") SeatStatus expectedStatus);
+
+    @Query("SELECT s.id AS id, s.screening.id AS screeningId FROM Seat s " +
+           "WHERE s.status = com.example.cinema_booking.enums.SeatStatus.RESERVED AND s.reservedUntil <= :now " +
+           "ORDER BY s.id")
+    List<SeatHoldView> findExpiredHolds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    boolean existsByIdAndScreeningId(Long id, Long screeningId);
+
+    List<SeatView> findByIdInOrderById(Collection<Long> ids);
+
+    List<SeatView> findByScreeningIdOrderById(Long screeningId);
+}
@@ -0,0 +1,11 @@
+package com.example.cinema_booking.repository;
+
+import com.example.cinema_booking.enums.SeatStatus;
+
+// Column-only projection of a seat row, used where the full entity graph is not needed
+public interface SeatView {
+    Long getId();
+    String getSeatRow();
+    String getSeatNumber();
+    SeatStatus getStatus();
+}
@@ -0,0 +1,53 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.repository.ScreeningRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps screening.available_seats as a snapshot of the seat table instead of a
+ * counter every booking has to update. Booking paths only touch their own seat
+ * rows, so the screening row is no longer a serialisation point in a sell-out;
+ * reads that need an exact figure count seats directly (see the screening
+ * summary query), everything else tolerates one refresh interval of lag.
+ */
+@Slf4j
+@Component
+public class AvailableSeatsRefresher {
+    static final String REFRESH_LEASE = "available-seats-refresh";
+
+    private final ScreeningRepository screeningRepository;
+    private final ClusterLeaseManager clusterLeaseManager;
+    private final RetryPolicy retryPolicy;
+    private final Duration pastWindow;
+
+    public AvailableSeatsRefresher(ScreeningRepository screeningRepository,
+                                   ClusterLeaseManager clusterLeaseManager,
+                                   RetryPolicy retryPolicy,
+                                   @Value("${booking.seats.refresh-past-hours:24}") long pastHours) {
+        this.screeningRepository = screeningRepository;
+        this.clusterLeaseManager = clusterLeaseManager;
+        this.retryPolicy = retryPolicy;
+        this.pastWindow = Duration.ofHours(pastHours);
+    }
+
+    // Screenings that ended long ago no longer change, so they are left alone
+    @Scheduled(fixedDelayString = "${booking.seats.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!clusterLeaseManager.tryAcquire(REFRESH_LEASE)) {
+            return;
+        }
+        try {
+            int refreshed = retryPolicy.execute("refresh-available-seats",
+                    () -> screeningRepository.refreshAvailableSeats(LocalDateTime.now().minus(pastWindow)));
+            log.debug("Refreshed available seat counts of {} screenings", refreshed);
+        } catch (Exception e) {
+            log.error("Failed to refresh available seat counts", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.entity.OutboxEvent;
+import com.example.cinema_booking.enums.OutboxEventType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Stand-in for the mail gateway: confirmation and cancellation emails.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.outbox.stub-handlers.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingEmailStubHandler implements OutboxHandler {
+    private final long latencyMillis;
+
+    public BookingEmailStubHandler(@Value("${booking.outbox.stub.latency-ms:50}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public String name() {
+        return "booking-email";
+    }
+
+    @Override
+    public Set<OutboxEventType> eventTypes() {
+        return Set.of(OutboxEventType.BOOKING_CONFIRMED, OutboxEventType.BOOKING_CANCELLED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws InterruptedException {
+        Thread.sleep(latencyMillis);
+        log.info("Sent email for booking {} (event {})", event.getAggregateId(), event.getId());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.exception.ConcurrencyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs booking work either on a fixed pool of platform threads or on one
+ * virtual thread per task. In both modes a semaphore sized to the connection
+ * pool caps how many tasks talk to the database at once, so a burst parks
+ * cheaply in the semaphore queue instead of piling up on Hikari's 20
+ * connections or being rejected by a bounded work queue.
+ *
+ * Deliberately not an {@link java.util.concurrent.Executor} bean: that would
+ * make Spring Boot back off from creating the default @Async executor.
+ */
+@Slf4j
+@Component
+public class BookingExecutor {
+    private final ExecutorService executorService;
+    private final Semaphore admission;
+    private final long admissionTimeoutMillis;
+    private final boolean virtualThreads;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public BookingExecutor(@Value("${booking.executor.virtual-threads:false}") boolean virtualThreads,
+                           @Value("${booking.executor.max-concurrency:20}") int maxConcurrency,
+                           @Value("${booking.executor.admission-timeout-ms:5000}") long admissionTimeoutMillis,
+                           MeterRegistry meterRegistry) {
+        this.virtualThreads = virtualThreads;
+        this.admission = new Semaphore(maxConcurrency, true);
+        this.admissionTimeoutMillis = admissionTimeoutMillis;
+        this.executorService = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Booking-VThread-", 1).factory())
+                : Executors.newFixedThreadPool(
+                        Runtime.getRuntime().availableProcessors() * 2, // Number of threads = 2 * number of CPU cores
+                        platformThreadFactory());
+        Gauge.builder("booking.executor.active", this, BookingExecutor::getActiveTasks)
+                .description("Booking tasks currently running")
+                .register(meterRegistry);
+        Gauge.builder("booking.executor.waiting", this, BookingExecutor::getWaitingTasks)
+                .description("Booking tasks waiting for admission")
+                .register(meterRegistry);
+        Gauge.builder("booking.executor.available.permits", this, BookingExecutor::getAvailablePermits)
+                .description("Free admission permits")
+                .tag("mode", virtualThreads ? "virtual" : "platform")
+                .register(meterRegistry);
+        log.info("Booking executor running on {} threads with {} concurrent database slots",
+                virtualThreads ? "virtual" : "platform", maxConcurrency);
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            acquire();
+            active.incrementAndGet();
+            try {
+                return task.get();
+            } finally {
+                active.decrementAndGet();
+                admission.release();
+            }
+        }, executorService);
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        return supplyAsync(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getActiveTasks() {
+        return active.get();
+    }
+
+    public int getWaitingTasks() {
+        return waiting.get();
+    }
+
+    public int getAvailablePermits() {
+        return admission.availablePermits();
+    }
+
+    // Cleanup executor service on application shutdown
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acquire() {
+        waiting.incrementAndGet();
+        try {
+            if (!admission.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ConcurrencyException("The booking system is busy. Please try again.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyException("Booking request was interrupted");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger count = new AtomicInteger(1);
+        return r -> {
+            Thread thread = new Thread(r);
+            thread.setName("Booking-Thread-" + count.getAndIncrement());
+            thread.setDaemon(true); // Make threads daemon so they don't prevent application shutdown
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.constants.BookingConstants;
+import com.example.cinema_booking.dto.response.BookingHistoryPageDTO;
+import com.example.cinema_booking.dto.response.BookingResponseDTO;
+import com.example.cinema_booking.dto.response.MovieResponseDTO;
+import com.example.cinema_booking.dto.response.ScreeningResponseDTO;
+import com.example.cinema_booking.dto.response.SeatResponseDTO;
+import com.example.cinema_booking.exception.BookingException;
+import com.example.cinema_booking.repository.BookingHistoryView;
+import com.example.cinema_booking.repository.BookingRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Customer booking history read through flat projections, so corporate
+ * accounts with thousands of bookings never hydrate booking, screening, movie
+ * and seat entities. Offers the full list, keyset pages and a chunked JSON
+ * stream that holds at most one row in memory.
+ */
+@Slf4j
+@Service
+public class BookingHistoryService {
+    private static final int FLUSH_EVERY_ROWS = 100;
+
+    private final BookingRepository bookingRepository;
+    private final BookingExecutor bookingExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter rowWriter;
+
+    public BookingHistoryService(BookingRepository bookingRepository,
+                                 BookingExecutor bookingExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.bookingExecutor = bookingExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Rows are flushed in batches, not after every value
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public CompletableFuture<List<BookingResponseDTO>> getBookingsByEmail(String email) {
+        return bookingExecutor.supplyAsync(() -> bookingRepository.findHistoryByEmail(email, Pageable.unpaged())
+                .stream()
+                .map(this::convertToDTO)
+                .toList());
+    }
+
+    public CompletableFuture<BookingHistoryPageDTO> getBookingPage(String email, String cursor, Integer size) {
+        int pageSize = size == null ? BookingConstants.DEFAULT_HISTORY_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > BookingConstants.MAX_HISTORY_PAGE_SIZE) {
+            throw new BookingException("Page size must be between 1 and " + BookingConstants.MAX_HISTORY_PAGE_SIZE);
+        }
+        Cursor after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+
+        return bookingExecutor.supplyAsync(() -> {
+            // One extra row tells whether another page exists without a COUNT query
+            PageRequest limit = PageRequest.ofSize(pageSize + 1);
+            List<BookingHistoryView> rows = after == null
+                    ? bookingRepository.findHistoryByEmail(email, limit)
+                    : bookingRepository.findHistoryByEmailAfter(email, after.bookingTime(), after.id(), limit);
+
+            boolean hasMore = rows.size() > pageSize;
+            List<BookingHistoryView> page = hasMore ? rows.subList(0, pageSize) : rows;
+            BookingHistoryView last = page.isEmpty() ? null : page.get(page.size() - 1);
+            return BookingHistoryPageDTO.builder()
+                    .bookings(page.stream().map(this::convertToDTO).toList())
+                    .nextCursor(hasMore ? new Cursor(last.getBookingTime(), last.getId()).encode() : null)
+                    .build();
+        });
+    }
+
+    /**
+     * Writes the whole history as one JSON array while the rows are read. Runs on
+     * the MVC async thread and holds a connection for the duration of the stream.
+     */
+    public void streamBookingsByEmail(String email, OutputStream out) throws IOException {
+        try (JsonGenerator json = rowWriter.createGenerator(out)) {
+            json.writeStartArray();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<BookingHistoryView> rows = bookingRepository.streamHistoryByEmail(email)) {
+                    int written = 0;
+                    for (BookingHistoryView row : (Iterable<BookingHistoryView>) rows::iterator) {
+                        rowWriter.writeValue(json, convertToDTO(row));
+                        if (++written % FLUSH_EVERY_ROWS == 0) {
+                            json.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    // Usually the client went away; the transaction is rolled back and the cursor closed
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+        } catch (UncheckedIOException e) {
+            log.debug("Booking history stream for {} aborted: {}", email, e.getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private BookingResponseDTO convertToDTO(BookingHistoryView view) {
+        return BookingResponseDTO.builder()
+                .id(view.getId())
+                .customerName(view.getCustomerName())
+                .customerEmail(view.getCustomerEmail())
+                .customerPhone(view.getCustomerPhone())
+                .bookingTime(view.getBookingTime())
+                .status(view.getStatus())
+                .totalPrice(view.getTotalPrice())
+                .screening(ScreeningResponseDTO.builder()
+                        .id(view.getScreeningId())
+                        .movie(MovieResponseDTO.builder()
+                                .id(view.getMovieId())
+                                .title(view.getMovieTitle())
+                                .genre(view.getMovieGenre())
+                                .description(view.getMovieDescription())
+                                .ticketPrice(view.getMovieTicketPrice())
+                                .build())
+                        .screeningTime(view.getScreeningTime())
+                        .totalSeats(view.getTotalSeats())
+                        .availableSeats(view.getAvailableSeats())
+                        .build())
+                .seat(SeatResponseDTO.builder()
+                        .id(view.getSeatId())
+                        .seatRow(view.getSeatRow())
+                        .seatNumber(view.getSeatNumber())
+                        .status(view.getSeatStatus())
+                        .build())
+                .build();
+    }
+
+    // Position of the last row of a page: booking time plus id as the tie-breaker
+    private record Cursor(LocalDateTime bookingTime, Long id) {
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((bookingTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new BookingException("Invalid history cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.exception.BookingException;
+import com.example.cinema_booking.exception.ConcurrencyException;
+import com.example.cinema_booking.exception.ResourceNotFoundException;
+import com.example.cinema_booking.exception.SeatLockException;
+import com.example.cinema_booking.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Times booking operations end to end (admission, lock wait and database work)
+ * as {@code booking.operation} tagged with the operation and its outcome:
+ * success, rejected, conflict, timeout or error.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingMetrics {
+    static final String OPERATION_TIMER = "booking.operation";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> CompletableFuture<T> record(String operation, Supplier<CompletableFuture<T>> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            // Submission failures surface synchronously rather than through the future
+            stop(sample, operation, outcomeOf(e));
+            throw e;
+        }
+        return future.whenComplete((result, ex) -> stop(sample, operation,
+                ex != null ? outcomeOf(ex) : Boolean.FALSE.equals(result) ? "rejected" : "success"));
+    }
+
+    private void stop(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder(OPERATION_TIMER)
+                .description("Booking operation latency including admission and lock wait")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    static String outcomeOf(Throwable ex) {
+        // Services wrap their failures, so the cause chain decides the outcome
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SeatLockException) {
+                return "timeout";
+            }
+            if (cause instanceof ConcurrencyException || cause instanceof OptimisticLockingFailureException) {
+                return "conflict";
+            }
+            if (cause instanceof BookingException || cause instanceof ResourceNotFoundException
+                    || cause instanceof TooManyRequestsException) {
+                return "rejected";
+            }
+        }
+        return "error";
+    }
+}
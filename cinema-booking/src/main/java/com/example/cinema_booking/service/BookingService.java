@@ -1,202 +1,164 @@
 package com.example.cinema_booking.service;
 
+import com.example.cinema_booking.constants.BookingConstants;
 import com.example.cinema_booking.dto.request.BookingRequestDTO;
+import com.example.cinema_booking.dto.request.GroupBookingRequestDTO;
 import com.example.cinema_booking.entity.Booking;
 import com.example.cinema_booking.entity.Screening;
 import com.example.cinema_booking.entity.Seat;
 import com.example.cinema_booking.enums.BookingStatus;
+import com.example.cinema_booking.event.SalesEvent;
+import com.example.cinema_booking.enums.OutboxEventType;
 import com.example.cinema_booking.enums.SeatStatus;
+import com.example.cinema_booking.exception.BookingException;
+import com.example.cinema_booking.exception.ConcurrencyException;
+import com.example.cinema_booking.exception.ResourceNotFoundException;
+import com.example.cinema_booking.exception.TooManyRequestsException;
+import com.example.cinema_booking.repository.BookingJdbcRepository;
 import com.example.cinema_booking.repository.BookingRepository;
 import com.example.cinema_booking.repository.ScreeningRepository;
 import com.example.cinema_booking.repository.SeatRepository;
-import jakarta.annotation.PreDestroy;
+import com.example.cinema_booking.repository.SeatView;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.*;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
+    private static final String LOCK_TIMEOUT_MESSAGE = "Unable to process booking request at this time. Please try again.";
+
     private final BookingRepository bookingRepository;
+    private final BookingJdbcRepository bookingJdbcRepository;
     private final ScreeningRepository screeningRepository;
     private final SeatRepository seatRepository;
-    private final Lock bookingLock = new ReentrantLock();
-    private static final long RESERVATION_TIMEOUT_MINUTES = 5;
-    
-    // Create a thread pool for handling concurrent booking operations
-    private final ExecutorService executorService = Executors.newFixedThreadPool(
-        Runtime.getRuntime().availableProcessors() * 2, // Number of threads = 2 * number of CPU cores
-        new ThreadFactory() {
-            private int count = 1;
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread thread = new Thread(r);
-                thread.setName("Booking-Thread-" + count++);
-                thread.setDaemon(true); // Make threads daemon so they don't prevent application shutdown
-                return thread;
+    private final SeatLockManager seatLockManager;
+    private final ReservationExpiryService reservationExpiryService;
+    private final SeatMapCache seatMapCache;
+    private final SeatMapStreamService seatMapStreamService;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingExecutor bookingExecutor;
+    private final BookingMetrics bookingMetrics;
+    private final RetryPolicy retryPolicy;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // holder is the customer and client IP the hold counts against; null places an uncounted hold
+    public CompletableFuture<Boolean> reserveSeat(Long screeningId, Long seatId, RateLimiter.Holder holder) {
+        // Two holds racing for one holder's last slot can deadlock on the count; the loser is retried
+        return bookingMetrics.record("reserve", () -> retryPolicy.executeAsync("reserve", () -> bookingExecutor.supplyAsync(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            // Single conditional UPDATE: only one caller can move the seat out of AVAILABLE,
+            // so this is safe across threads and application instances without locking
+            LocalDateTime reservedUntil = now.plusMinutes(BookingConstants.RESERVATION_TIMEOUT_MINUTES);
+            int claimed = hold(screeningId, List.of(seatId), reservedUntil, holder, now);
+            if (claimed == 0) {
+                if (!seatRepository.existsByIdAndScreeningId(seatId, screeningId)) {
+                    throw new RuntimeException("Seat not found in this screening");
+                }
+                checkHoldLimit(holder, 1, now);
+                return false;
             }
-        }
-    );
 
-    // Cleanup executor service on application shutdown
-    @PreDestroy
-    public void cleanup() {
-        executorService.shutdown();
-        try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+            reservationExpiryService.scheduleRelease(screeningId, seatId, reservedUntil);
+            onSeatStatusChanged(screeningId, List.of(seatId), SeatStatus.RESERVED);
+            return true;
+        })));
     }
 
-    @Transactional
-    public CompletableFuture<Boolean> reserveSeat(Long screeningId, Long seatId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                if (!bookingLock.tryLock(5, TimeUnit.SECONDS)) {
-                    throw new RuntimeException("Could not acquire lock for seat reservation");
+    // Holds all of the seats or none of them; returns the hold deadline
+    public CompletableFuture<LocalDateTime> reserveSeats(Long screeningId, List<Long> seatIds, RateLimiter.Holder holder) {
+        if (seatIds == null || seatIds.isEmpty() || seatIds.size() > BookingConstants.MAX_SEATS_PER_BOOKING) {
+            throw new BookingException("Between 1 and " + BookingConstants.MAX_SEATS_PER_BOOKING
+                    + " seats can be reserved at once");
+        }
+        return bookingMetrics.record("reserve-block", () -> retryPolicy.executeAsync("reserve-block", () -> bookingExecutor.supplyAsync(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime reservedUntil = now.plusMinutes(BookingConstants.RESERVATION_TIMEOUT_MINUTES);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (hold(screeningId, seatIds, reservedUntil, holder, now) != seatIds.size()) {
+                    // Throwing rolls back the seats that were held
+                    checkHoldLimit(holder, seatIds.size(), now);
+                    throw new ConcurrencyException("One or more of the selected seats are no longer available");
                 }
+            });
 
-                try {
-                    Screening screening = screeningRepository.findByIdWithSeats(screeningId)
-                            .orElseThrow(() -> new RuntimeException("Screening not found"));
-
-                    Seat seat = screening.getSeats().stream()
-                            .filter(s -> s.getId().equals(seatId))
-                            .findFirst()
-                            .orElseThrow(() -> new RuntimeException("Seat not found in this screening"));
-
-                    // Check if there's already a pending booking for this seat
-                    if (bookingRepository.existsByScreeningAndSeatAndStatus(screening, seat, BookingStatus.PENDING)) {
-                        return false;
-                    }
-
-                    if (seat.getStatus() != SeatStatus.AVAILABLE) {
-                        return false;
-                    }
-
-                    seat.setStatus(SeatStatus.RESERVED);
-                    seatRepository.save(seat);
-                    
-                    // Schedule a task to release the reservation after timeout using our executor
-                    CompletableFuture.delayedExecutor(RESERVATION_TIMEOUT_MINUTES, TimeUnit.MINUTES, executorService)
-                        .execute(() -> {
-                            try {
-                                if (bookingLock.tryLock(5, TimeUnit.SECONDS)) {
-                                    try {
-                                        Seat currentSeat = seatRepository.findById(seatId)
-                                                .orElseThrow(() -> new RuntimeException("Seat not found"));
-                                        if (currentSeat.getStatus() == SeatStatus.RESERVED) {
-                                            currentSeat.setStatus(SeatStatus.AVAILABLE);
-                                            seatRepository.save(currentSeat);
-                                        }
-                                    } finally {
-                                        bookingLock.unlock();
-                                    }
-                                }
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                            } catch (Exception e) {
-                                // Log any other exceptions but don't rethrow
-                                e.printStackTrace();
-                            }
-                        });
-                    
-                    return true;
-                } finally {
-                    bookingLock.unlock();
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Reservation process was interrupted");
-            }
-        }, executorService);
+            seatIds.forEach(seatId -> reservationExpiryService.scheduleRelease(screeningId, seatId, reservedUntil));
+            onSeatStatusChanged(screeningId, seatIds, SeatStatus.RESERVED);
+            return reservedUntil;
+        })));
     }
 
-    @Transactional
     public CompletableFuture<Boolean> releaseSeatReservation(Long screeningId, Long seatId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return bookingMetrics.record("release", () -> bookingExecutor.supplyAsync(() -> {
             try {
-                if (!bookingLock.tryLock(5, TimeUnit.SECONDS)) {
-                    throw new RuntimeException("Could not acquire lock for releasing reservation");
+                // Only release if the seat is in RESERVED status
+                int released = seatRepository.claimSeat(screeningId, seatId,
+                        List.of(SeatStatus.RESERVED), SeatStatus.AVAILABLE);
+                if (released == 0 && !seatRepository.existsByIdAndScreeningId(seatId, screeningId)) {
+                    throw new RuntimeException("Seat not found");
                 }
-
-                try {
-                    Seat seat = seatRepository.findById(seatId)
-                            .orElseThrow(() -> new RuntimeException("Seat not found"));
-
-                    // Only release if the seat is in RESERVED status
-                    if (seat.getStatus() == SeatStatus.RESERVED) {
-                        seat.setStatus(SeatStatus.AVAILABLE);
-                        seatRepository.save(seat);
-                        return true;
-                    }
-                    return false;
-                } finally {
-                    bookingLock.unlock();
+                if (released == 1) {
+                    onSeatStatusChanged(screeningId, List.of(seatId), SeatStatus.AVAILABLE);
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Release reservation process was interrupted");
+                return released == 1;
             } catch (Exception e) {
-                e.printStackTrace();
-                throw new RuntimeException("Failed to release seat reservation: " + e.getMessage());
+                log.warn("Failed to release seat {} in screening {}", seatId, screeningId, e);
+                throw new RuntimeException("Failed to release seat reservation: " + e.getMessage(), e);
             }
-        }, executorService);
+        }));
     }
 
-    @Transactional
     public CompletableFuture<Booking> createBooking(BookingRequestDTO bookingRequest) {
-        return CompletableFuture.supplyAsync(() -> {
+        Long screeningId = bookingRequest.getScreeningId();
+        Long seatId = bookingRequest.getSeatId();
+        // Every attempt takes the lock afresh, so a backoff between attempts does not hold up the show
+        return bookingMetrics.record("book", () -> retryPolicy.executeAsync("book", () -> bookingExecutor.supplyAsync(
+                () -> seatLockManager.withScreeningLock(screeningId, LOCK_TIMEOUT_MESSAGE, () -> {
             try {
-                if (!bookingLock.tryLock(5, TimeUnit.SECONDS)) {
-                    throw new RuntimeException("Unable to process booking request at this time. Please try again.");
-                }
-
-                try {
-                    // First, check if there's already a booking for this request
-                    Screening screening = screeningRepository.findByIdWithSeats(bookingRequest.getScreeningId())
-                            .orElseThrow(() -> new RuntimeException("Screening not found"));
-
-                    Seat seat = screening.getSeats().stream()
-                            .filter(s -> s.getId().equals(bookingRequest.getSeatId()))
-                            .findFirst()
-                            .orElseThrow(() -> new RuntimeException("Seat not found in this screening"));
-
-                    // Check if there's already a pending booking for this seat
-                    if (bookingRepository.existsByScreeningAndSeatAndStatus(screening, seat, BookingStatus.PENDING)) {
-                        // Check if it's our booking
-                        Booking existingBooking = bookingRepository.findByScreeningAndSeatAndStatus(
-                            screening, seat, BookingStatus.PENDING)
-                            .orElse(null);
-                        
-                        if (existingBooking != null && 
-                            existingBooking.getCustomerEmail().equals(bookingRequest.getCustomerEmail())) {
-                            return existingBooking;
+                Booking booking = transactionTemplate.execute(status -> {
+                    // Claim the seat first; a reserved seat can be booked straight away
+                    int claimed = seatRepository.claimSeat(screeningId, seatId,
+                            List.of(SeatStatus.AVAILABLE, SeatStatus.RESERVED), SeatStatus.BOOKED);
+
+                    if (claimed == 0) {
+                        // Check if there's already a pending booking for this seat, and if it's ours
+                        Booking existingBooking = bookingRepository
+                                .findBySeatIdAndStatus(seatId, BookingStatus.PENDING)
+                                .orElse(null);
+                        if (existingBooking != null) {
+                            if (existingBooking.getCustomerEmail().equals(bookingRequest.getCustomerEmail())) {
+                                return existingBooking;
+                            }
+                            throw new ConcurrencyException("This seat already has a pending booking");
+                        }
+                        if (!seatRepository.existsByIdAndScreeningId(seatId, screeningId)) {
+                            throw new RuntimeException("Seat not found in this screening");
                         }
-                        throw new RuntimeException("This seat already has a pending booking");
+                        throw new ConcurrencyException("Seat is not available for booking");
                     }
 
-                    // Check if the seat is in a valid state for booking
-                    if (seat.getStatus() != SeatStatus.AVAILABLE && seat.getStatus() != SeatStatus.RESERVED) {
-                        throw new RuntimeException("Seat is not available for booking");
-                    }
+                    // Loaded after the update so the response reflects the new seat state
+                    Seat seat = seatRepository.findById(seatId)
+                            .orElseThrow(() -> new RuntimeException("Seat not found in this screening"));
+                    Screening screening = seat.getScreening();
 
-                    // Create the booking
-                    Booking booking = Booking.builder()
+                    Booking created = Booking.builder()
                             .screening(screening)
                             .seat(seat)
                             .bookingTime(LocalDateTime.now())
-                            .expirationTime(LocalDateTime.now().plusMinutes(15))
+                            .expirationTime(LocalDateTime.now().plusMinutes(BookingConstants.PENDING_BOOKING_TIMEOUT_MINUTES))
                             .status(BookingStatus.PENDING)
                             .customerName(bookingRequest.getCustomerName())
                             .customerEmail(bookingRequest.getCustomerEmail())
@@ -204,47 +166,91 @@ public class BookingService {
                             .totalPrice(screening.getMovie().getTicketPrice())
                             .build();
 
-                    // Save the booking first
-                    Booking savedBooking = bookingRepository.save(booking);
+                    eventPublisher.publishEvent(new SalesEvent(SalesEvent.Type.BOOKED, screening.getMovie().getId(),
+                            screening.getScreeningTime(), 1, created.getTotalPrice()));
+                    return bookingRepository.save(created);
+                });
+                onSeatStatusChanged(screeningId, List.of(seatId), SeatStatus.BOOKED);
+                return booking;
+            } catch (ConcurrencyException | BookingException e) {
+                // Conflicts and rejections keep their own status codes (409, 400)
+                throw e;
+            } catch (RuntimeException e) {
+                log.warn("Failed to create booking for seat {} in screening {}", seatId, screeningId, e);
+                throw new RuntimeException("Failed to create booking: " + e.getMessage(), e);
+            }
+        }))));
+    }
 
-                    try {
-                        // Then update and save the seat
-                        seat.setStatus(SeatStatus.BOOKED);
-                        seat.setCurrentBooking(savedBooking);
-                        seatRepository.save(seat);
+    public CompletableFuture<List<Booking>> createGroupBooking(GroupBookingRequestDTO request) {
+        List<Long> requestedSeats = request.getSeatIds();
+        if (requestedSeats == null || requestedSeats.isEmpty()) {
+            throw new BookingException("At least one seat must be selected");
+        }
+        // Sorted, de-duplicated ids give every transaction the same row locking order
+        List<Long> seatIds = new ArrayList<>(new TreeSet<>(requestedSeats));
+        if (seatIds.size() > BookingConstants.MAX_SEATS_PER_BOOKING) {
+            throw new BookingException("A booking cannot contain more than "
+                    + BookingConstants.MAX_SEATS_PER_BOOKING + " seats");
+        }
 
-                        // Finally update the screening
-                        screening.setAvailableSeats(screening.getAvailableSeats() - 1);
-                        screeningRepository.save(screening);
-                    } catch (Exception e) {
-                        // If updating seat/screening fails, the booking is still valid
-                        // Log the error but don't throw it
-                        e.printStackTrace();
-                    }
+        Long screeningId = request.getScreeningId();
+        return bookingMetrics.record("group-book", () -> retryPolicy.executeAsync("group-book", () -> bookingExecutor.supplyAsync(
+                () -> seatLockManager.withScreeningLock(screeningId, LOCK_TIMEOUT_MESSAGE, () -> {
+            List<Booking> bookings = transactionTemplate.execute(status -> {
+                int claimed = seatRepository.claimSeats(screeningId, seatIds,
+                        List.of(SeatStatus.AVAILABLE, SeatStatus.RESERVED), SeatStatus.BOOKED);
+                if (claimed != seatIds.size()) {
+                    // Throwing rolls back the seats that were claimed, so it is all or nothing
+                    throw new ConcurrencyException("One or more of the selected seats are no longer available");
+                }
+
+                Screening screening = screeningRepository.findByIdWithMovie(screeningId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Screening not found"));
 
-                    return savedBooking;
-                } finally {
-                    bookingLock.unlock();
+                LocalDateTime now = LocalDateTime.now();
+                List<Booking> created = new ArrayList<>(seatIds.size());
+                for (SeatView seatView : seatRepository.findByIdInOrderById(seatIds)) {
+                    Seat seat = Seat.builder()
+                            .id(seatView.getId())
+                            .screening(screening)
+                            .seatRow(seatView.getSeatRow())
+                            .seatNumber(seatView.getSeatNumber())
+                            .status(seatView.getStatus())
+                            .build();
+                    created.add(Booking.builder()
+                            .screening(screening)
+                            .seat(seat)
+                            .bookingTime(now)
+                            .expirationTime(now.plusMinutes(BookingConstants.PENDING_BOOKING_TIMEOUT_MINUTES))
+                            .status(BookingStatus.PENDING)
+                            .customerName(request.getCustomerName())
+                            .customerEmail(request.getCustomerEmail())
+                            .customerPhone(request.getCustomerPhone())
+                            .totalPrice(screening.getMovie().getTicketPrice())
+                            .build());
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Booking process was interrupted");
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new RuntimeException("Failed to create booking: " + e.getMessage());
-            }
-        }, executorService);
+
+                bookingJdbcRepository.insertAll(created);
+                eventPublisher.publishEvent(new SalesEvent(SalesEvent.Type.BOOKED, screening.getMovie().getId(),
+                        screening.getScreeningTime(), created.size(),
+                        created.stream().mapToDouble(Booking::getTotalPrice).sum()));
+                return created;
+            });
+            onSeatStatusChanged(screeningId, seatIds, SeatStatus.BOOKED);
+            return bookings;
+        }))));
     }
 
-    @Transactional
     public CompletableFuture<Void> cancelBooking(Long bookingId) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                if (!bookingLock.tryLock(5, TimeUnit.SECONDS)) {
-                    throw new RuntimeException("Unable to process cancellation request at this time");
-                }
-
-                try {
+        // A lost race on the versioned booking is retried against the fresh state, outside the lock
+        return bookingMetrics.record("cancel", () -> retryPolicy.executeAsync("cancel", () -> bookingExecutor.runAsync(() -> {
+            Long screeningId = bookingRepository.findScreeningIdById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+            seatLockManager.withScreeningLock(screeningId,
+                    "Unable to process cancellation request at this time", () -> {
+                Long releasedSeatId = transactionTemplate.execute(status -> {
                     Booking booking = bookingRepository.findById(bookingId)
                             .orElseThrow(() -> new RuntimeException("Booking not found"));
 
@@ -262,72 +268,75 @@ public class BookingService {
                         throw new RuntimeException("Seat information not found");
                     }
 
-                    // Update seat status
-                    seat.setStatus(SeatStatus.AVAILABLE);
-                    seat.setCurrentBooking(null);
-                    seatRepository.save(seat);
-
-                    // Update screening available seats count
-                    Screening screening = seat.getScreening();
-                    if (screening != null) {
-                        screening.setAvailableSeats(screening.getAvailableSeats() + 1);
-                        screeningRepository.save(screening);
-                    }
-
-                    // Update booking status
+                    // The versioned booking update fails the whole transaction if another
+                    // request cancelled or confirmed it concurrently, undoing the seat release
                     booking.setStatus(BookingStatus.CANCELLED);
                     bookingRepository.save(booking);
-
-                } finally {
-                    bookingLock.unlock();
+                    outboxService.enqueue(OutboxEventType.BOOKING_CANCELLED, bookingId,
+                            Map.of("bookingId", bookingId, "screeningId", screeningId, "seatId", seat.getId()));
+                    eventPublisher.publishEvent(new SalesEvent(SalesEvent.Type.CANCELLED,
+                            booking.getScreening().getMovie().getId(), booking.getScreening().getScreeningTime(),
+                            1, booking.getTotalPrice()));
+
+                    int released = seatRepository.claimSeat(screeningId, seat.getId(),
+                            List.of(SeatStatus.BOOKED), SeatStatus.AVAILABLE);
+                    return released == 1 ? seat.getId() : null;
+                });
+                if (releasedSeatId != null) {
+                    onSeatStatusChanged(screeningId, List.of(releasedSeatId), SeatStatus.AVAILABLE);
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Cancellation process was interrupted");
-            }
-        }, executorService);
+            });
+        })));
     }
 
-    @Transactional
     public CompletableFuture<Void> confirmBooking(Long bookingId) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                if (!bookingLock.tryLock(5, TimeUnit.SECONDS)) {
-                    throw new RuntimeException("Unable to process confirmation request at this time");
+        return bookingMetrics.record("confirm", () -> bookingExecutor.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            // A single conditional UPDATE needs no screening lock and is safe across instances
+            if (bookingRepository.confirmPending(bookingId) == 0) {
+                if (!bookingRepository.existsById(bookingId)) {
+                    throw new RuntimeException("Booking not found");
                 }
+                throw new RuntimeException("Only pending bookings can be confirmed");
+            }
+            // Payment capture, ticket and email run later from the outbox, off the request path
+            outboxService.enqueue(OutboxEventType.BOOKING_CONFIRMED, bookingId,
+                    Map.of("bookingId", bookingId, "occurredAt", LocalDateTime.now()));
+            bookingRepository.findSalesViewById(bookingId).ifPresent(sales -> eventPublisher.publishEvent(
+                    new SalesEvent(SalesEvent.Type.CONFIRMED, sales.getMovieId(), sales.getScreeningTime(),
+                            1, sales.getTotalPrice())));
+        })));
+    }
 
-                try {
-                    Booking booking = bookingRepository.findById(bookingId)
-                            .orElseThrow(() -> new RuntimeException("Booking not found"));
-
-                    // Check if booking can be confirmed
-                    if (booking.getStatus() != BookingStatus.PENDING) {
-                        throw new RuntimeException("Only pending bookings can be confirmed");
-                    }
-
-                    // Update booking status
-                    booking.setStatus(BookingStatus.CONFIRMED);
-                    bookingRepository.save(booking);
+    // The cap itself is enforced atomically by the hold; no limits apply without a holder
+    private int hold(Long screeningId, List<Long> seatIds, LocalDateTime reservedUntil,
+                     RateLimiter.Holder holder, LocalDateTime now) {
+        boolean counted = holder != null;
+        return seatRepository.holdSeats(screeningId, seatIds, seatIds.size(), reservedUntil,
+                counted ? holder.customer() : null, counted ? holder.clientIp() : null, now,
+                counted ? BookingConstants.MAX_HOLDS_PER_CUSTOMER : Integer.MAX_VALUE,
+                counted ? BookingConstants.MAX_HOLDS_PER_CLIENT : Integer.MAX_VALUE);
+    }
 
-                } finally {
-                    bookingLock.unlock();
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Confirmation process was interrupted");
-            }
-        }, executorService);
+    // Tells a hold refused by the cap apart from one refused because the seats were taken
+    private void checkHoldLimit(RateLimiter.Holder holder, int requested, LocalDateTime now) {
+        if (holder == null) {
+            return;
+        }
+        boolean customerFull = holder.customer() != null && seatRepository.countActiveHolds(holder.customer(), now)
+                + requested > BookingConstants.MAX_HOLDS_PER_CUSTOMER;
+        boolean clientFull = holder.clientIp() != null && seatRepository.countActiveClientHolds(holder.clientIp(), now)
+                + requested > BookingConstants.MAX_HOLDS_PER_CLIENT;
+        if (customerFull || clientFull) {
+            throw new TooManyRequestsException("You cannot hold more than "
+                    + (customerFull ? BookingConstants.MAX_HOLDS_PER_CUSTOMER : BookingConstants.MAX_HOLDS_PER_CLIENT)
+                    + " seats at once. Book or release some first",
+                    TimeUnit.MINUTES.toSeconds(BookingConstants.RESERVATION_TIMEOUT_MINUTES));
+        }
     }
 
-    @Transactional(readOnly = true)
-    public CompletableFuture<List<Booking>> getBookingsByEmail(String email) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return bookingRepository.findByCustomerEmailOrderByBookingTimeDesc(email);
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new RuntimeException("Failed to fetch bookings: " + e.getMessage());
-            }
-        }, executorService);
+    // Called after the owning transaction has committed
+    private void onSeatStatusChanged(Long screeningId, Collection<Long> seatIds, SeatStatus status) {
+        seatMapCache.updateStatus(screeningId, seatIds, status);
+        seatMapStreamService.publish(screeningId, seatIds, status);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
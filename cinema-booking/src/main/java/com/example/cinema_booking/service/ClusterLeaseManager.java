@@ -0,0 +1,111 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.repository.ClusterLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leader election for background jobs through the cluster_lease table. In
+ * single-instance mode every lease is granted locally. In cluster mode an
+ * instance runs a job only while it holds that job's lease. The lease is
+ * renewed on each run and taken over by another instance once it lapses.
+ * Request handling never depends on a lease: seat transitions are conditional
+ * updates and stay correct whichever instance serves them.
+ */
+@Slf4j
+@Component
+public class ClusterLeaseManager {
+    private final ClusterLeaseRepository clusterLeaseRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final boolean clusterEnabled;
+    private final String instanceId;
+    private final Duration leaseDuration;
+
+    private final Set<String> heldLeases = ConcurrentHashMap.newKeySet();
+
+    public ClusterLeaseManager(ClusterLeaseRepository clusterLeaseRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${booking.cluster.enabled:false}") boolean clusterEnabled,
+                               @Value("${booking.cluster.instance-id:}") String instanceId,
+                               @Value("${booking.cluster.lease-seconds:90}") long leaseSeconds) {
+        this.clusterLeaseRepository = clusterLeaseRepository;
+        // Lease changes commit on their own, even when the caller is inside a transaction,
+        // and a lost insert race must not mark the caller's transaction rollback-only
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clusterEnabled = clusterEnabled;
+        this.instanceId = instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+    }
+
+    public boolean tryAcquire(String lease) {
+        if (!clusterEnabled) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        boolean acquired;
+        try {
+            acquired = leaseTransaction.execute(status ->
+                    clusterLeaseRepository.renew(lease, instanceId, now, now.plus(leaseDuration))) == 1
+                    || create(lease, now);
+        } catch (RuntimeException e) {
+            log.warn("Could not acquire lease {}", lease, e);
+            acquired = false;
+        }
+
+        if (acquired && heldLeases.add(lease)) {
+            log.info("Instance {} is now running {}", instanceId, lease);
+        } else if (!acquired) {
+            heldLeases.remove(lease);
+        }
+        return acquired;
+    }
+
+    public boolean isClusterEnabled() {
+        return clusterEnabled;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public Set<String> getHeldLeases() {
+        return Set.copyOf(heldLeases);
+    }
+
+    // Hands the leases over right away instead of making the others wait for expiry
+    @PreDestroy
+    public void releaseAll() {
+        if (clusterEnabled && !heldLeases.isEmpty()) {
+            try {
+                leaseTransaction.executeWithoutResult(status ->
+                        clusterLeaseRepository.releaseAll(instanceId, LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                log.warn("Could not release leases on shutdown", e);
+            }
+            heldLeases.clear();
+        }
+    }
+
+    private boolean create(String lease, LocalDateTime now) {
+        try {
+            return leaseTransaction.execute(status ->
+                    clusterLeaseRepository.create(lease, instanceId, now.plus(leaseDuration))) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance holds it
+            return false;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.entity.IdempotencyRecord;
+import com.example.cinema_booking.enums.IdempotencyStatus;
+import com.example.cinema_booking.exception.BookingException;
+import com.example.cinema_booking.exception.ConcurrencyException;
+import com.example.cinema_booking.exception.IdempotencyKeyReuseException;
+import com.example.cinema_booking.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Makes mutating booking requests carrying an Idempotency-Key header safe to retry.
+ * The key is claimed in the idempotency_record table before the request runs, so
+ * a retry on another instance either replays the stored response or is told the
+ * original is still running. Completed responses are also kept in a small LRU in
+ * front of the table, and concurrent duplicates on one instance share one future.
+ * Failed requests release their key, so a retry runs them again.
+ *
+ * Keys are scoped per client (customer email, or IP without one), so two clients
+ * picking the same key never see each other's responses. A claim carries a random
+ * owner token and is renewed while its request runs; only an instance that died
+ * mid-request lets it lapse and be taken over, and completing or releasing a
+ * claim that was taken over changes nothing.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final ClusterLeaseManager clusterLeaseManager;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final int cacheSize;
+
+    private final Map<String, StoredResponse> completed;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              ClusterLeaseManager clusterLeaseManager,
+                              @Value("${booking.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${booking.idempotency.in-progress-timeout-seconds:60}") long inProgressTimeoutSeconds,
+                              @Value("${booking.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.clusterLeaseManager = clusterLeaseManager;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.inProgressTimeout = Duration.ofSeconds(inProgressTimeoutSeconds);
+        this.cacheSize = cacheSize;
+        this.completed = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > IdempotencyService.this.cacheSize;
+            }
+        };
+    }
+
+    private record StoredResponse(String requestHash, int status, String body, LocalDateTime expiresAt) {
+    }
+
+    private record InFlight(String requestHash, String ownerToken, CompletableFuture<ResponseEntity<?>> future) {
+    }
+
+    // The client an idempotency key belongs to: the customer email if the request names one, else the IP
+    public static String client(String customerEmail, String clientIp) {
+        return customerEmail != null && !customerEmail.isBlank()
+                ? customerEmail.trim().toLowerCase(Locale.ROOT)
+                : "ip:" + clientIp;
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> execute(String idempotencyKey, String client, String operation,
+                                                            Object request, TypeReference<T> responseType,
+                                                            Supplier<CompletableFuture<ResponseEntity<T>>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BookingException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = scopedKey(client, idempotencyKey);
+        String requestHash = fingerprint(operation, request);
+
+        StoredResponse stored = cached(key);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(replay(stored, requestHash, responseType));
+        }
+
+        InFlight mine = new InFlight(requestHash, UUID.randomUUID().toString(), new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // Same key already running on this instance: share its result
+            checkSameRequest(running.requestHash(), requestHash);
+            return cast(running.future());
+        }
+
+        try {
+            if (!claim(key, requestHash, mine.ownerToken())) {
+                IdempotencyRecord record = idempotencyRecordRepository.findById(key)
+                        .orElseThrow(() -> new ConcurrencyException("A request with this "
+                                + HEADER + " is still being processed"));
+                if (record.getStatus() != IdempotencyStatus.COMPLETED) {
+                    throw new ConcurrencyException("A request with this " + HEADER + " is still being processed");
+                }
+                stored = new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+                        record.getResponseBody(), record.getExpiresAt());
+                remember(key, stored);
+                ResponseEntity<T> replayed = replay(stored, requestHash, responseType);
+                finish(key, mine, replayed, null);
+                return CompletableFuture.completedFuture(replayed);
+            }
+        } catch (RuntimeException e) {
+            finish(key, mine, null, e);
+            throw e;
+        }
+
+        CompletableFuture<ResponseEntity<T>> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.release(key, mine.ownerToken());
+            finish(key, mine, null, e);
+            throw e;
+        }
+        result.whenComplete((response, ex) -> {
+            try {
+                if (ex == null && response.getStatusCode().is2xxSuccessful()) {
+                    store(key, mine.ownerToken(), requestHash, response);
+                } else {
+                    idempotencyRecordRepository.release(key, mine.ownerToken());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to record outcome for idempotency key {}", key, e);
+            } finally {
+                finish(key, mine, response, ex);
+            }
+        });
+        return cast(mine.future());
+    }
+
+    // Runs well inside the in-progress timeout, so a live request's claim never lapses
+    @Scheduled(fixedDelayString = "${booking.idempotency.renew-interval-ms:20000}")
+    public void renewClaims() {
+        List<String> ownerTokens = inFlight.values().stream().map(InFlight::ownerToken).toList();
+        if (!ownerTokens.isEmpty()) {
+            idempotencyRecordRepository.renew(ownerTokens, LocalDateTime.now().plus(inProgressTimeout));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.idempotency.cleanup-interval-ms:300000}")
+    public void deleteExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (completed) {
+            completed.values().removeIf(response -> response.expiresAt().isBefore(now));
+        }
+        if (!clusterLeaseManager.tryAcquire("idempotency-cleanup")) {
+            return;
+        }
+        int deleted = idempotencyRecordRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency records", deleted);
+        }
+    }
+
+    private boolean claim(String key, String requestHash, String ownerToken) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return idempotencyRecordRepository.claim(key, requestHash, ownerToken, now, now.plus(inProgressTimeout)) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Taken; if the holder stopped renewing it (its instance died mid-request) take it over once
+            if (idempotencyRecordRepository.deleteIfExpired(key, now) == 1) {
+                try {
+                    return idempotencyRecordRepository.claim(key, requestHash, ownerToken, now, now.plus(inProgressTimeout)) == 1;
+                } catch (DataIntegrityViolationException again) {
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void store(String key, String ownerToken, String requestHash, ResponseEntity<?> response) {
+        String body = serialize(response.getBody());
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        int status = response.getStatusCode().value();
+        if (idempotencyRecordRepository.complete(key, ownerToken, status, body, expiresAt) == 0) {
+            // The claim lapsed and another request owns the key now; its outcome is the one to replay
+            log.warn("Idempotency claim {} was taken over before its request completed", key);
+            return;
+        }
+        remember(key, new StoredResponse(requestHash, status, body, expiresAt));
+    }
+
+    private StoredResponse cached(String key) {
+        synchronized (completed) {
+            StoredResponse stored = completed.get(key);
+            if (stored != null && stored.expiresAt().isBefore(LocalDateTime.now())) {
+                completed.remove(key);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void remember(String key, StoredResponse stored) {
+        synchronized (completed) {
+            completed.put(key, stored);
+        }
+    }
+
+    private void finish(String key, InFlight mine, ResponseEntity<?> response, Throwable ex) {
+        inFlight.remove(key, mine);
+        if (ex != null) {
+            mine.future().completeExceptionally(ex);
+        } else {
+            mine.future().complete(response);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, TypeReference<T> responseType) {
+        checkSameRequest(stored.requestHash(), requestHash);
+        try {
+            T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), responseType);
+            return ResponseEntity.status(stored.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(HEADER + " was already used for a different request");
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = sha256();
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    // Hashed so any client id and key fit the 100-character key column
+    private static String scopedKey(String client, String idempotencyKey) {
+        MessageDigest digest = sha256();
+        digest.update(client.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(idempotencyKey.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String serialize(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response for replay", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<ResponseEntity<T>> cast(CompletableFuture<ResponseEntity<?>> future) {
+        return (CompletableFuture<ResponseEntity<T>>) (CompletableFuture<?>) future;
+    }
+}
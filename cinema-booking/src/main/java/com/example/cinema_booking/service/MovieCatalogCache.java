@@ -0,0 +1,101 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.response.MovieResponseDTO;
+import com.example.cinema_booking.event.MovieChangedEvent;
+import com.example.cinema_booking.repository.MovieRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-through cache for the movie catalogue, which changes a few times a day
+ * but is read on every page load. Entries are bounded by size and TTL and are
+ * dropped after a movie change commits; the TTL bounds staleness for changes
+ * made on other instances. Each entry carries an ETag computed from its JSON
+ * form, so unchanged payloads can be answered with 304 without serialising.
+ */
+@Slf4j
+@Component
+public class MovieCatalogCache {
+    private static final String ALL = "all";
+
+    private final MovieRepository movieRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, Cached<List<MovieResponseDTO>>> lists;
+    private final Cache<Long, Cached<MovieResponseDTO>> movies;
+
+    public MovieCatalogCache(MovieRepository movieRepository,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${booking.movies.cache.max-size:1000}") long maxSize,
+                             @Value("${booking.movies.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.movieRepository = movieRepository;
+        this.objectMapper = objectMapper;
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.movies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lists, "movie-lists");
+        CaffeineCacheMetrics.monitor(meterRegistry, movies, "movies");
+    }
+
+    public Cached<List<MovieResponseDTO>> getAll() {
+        return lists.get(ALL, key -> cached(movieRepository.findAll().stream()
+                .map(MovieResponseDTO::fromEntity)
+                .toList()));
+    }
+
+    public Cached<List<MovieResponseDTO>> getByGenre(String genre) {
+        return lists.get("genre:" + genre, key -> cached(movieRepository.findByGenre(genre).stream()
+                .map(MovieResponseDTO::fromEntity)
+                .toList()));
+    }
+
+    // Misses for unknown ids are not cached, so a movie created elsewhere shows up at once
+    public Optional<Cached<MovieResponseDTO>> get(Long id) {
+        return Optional.ofNullable(movies.get(id, key -> movieRepository.findById(key)
+                .map(movie -> cached(MovieResponseDTO.fromEntity(movie)))
+                .orElse(null)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        log.debug("Movie {} {}, invalidating catalogue cache", event.movieId(), event.type());
+        movies.invalidate(event.movieId());
+        // A change can move a movie between genres, so every list is dropped
+        lists.invalidateAll();
+    }
+
+    private <T> Cached<T> cached(T value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(value));
+            return new Cached<>(value, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compute ETag", e);
+        }
+    }
+
+    public record Cached<T>(T value, String etag) {
+    }
+}
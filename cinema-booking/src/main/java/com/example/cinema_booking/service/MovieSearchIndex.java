@@ -0,0 +1,315 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.response.MovieResponseDTO;
+import com.example.cinema_booking.event.MovieChangedEvent;
+import com.example.cinema_booking.repository.MovieRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over movie title, genre and description. Terms are
+ * lower-cased, accent-stripped words; postings carry a per-movie weight that
+ * favours title over genre over description. A query matches when every one of
+ * its terms matches some indexed term exactly, as a prefix (so results update as
+ * the user types) or within one edit. Edits are found through a deletion index:
+ * every term is also stored under each of its one-letter deletions, so typo
+ * candidates are a handful of hash lookups rather than a scan of the vocabulary.
+ *
+ * Movie changes committed on this instance are applied one movie at a time; a
+ * periodic full rebuild picks up changes made on other instances.
+ */
+@Slf4j
+@Component
+public class MovieSearchIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "by", "for", "from", "in", "into", "is", "it", "its",
+            "of", "on", "or", "the", "to", "with");
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float GENRE_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.6;
+    private static final double FUZZY_MATCH = 0.4;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final MovieRepository movieRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private Index index = new Index();
+    private long changeCount;
+
+    public MovieSearchIndex(MovieRepository movieRepository, MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        Gauge.builder("booking.movies.search.indexed", this, MovieSearchIndex::size)
+                .description("Movies in the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    public record Result(List<MovieResponseDTO> movies, int total) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${booking.movies.search.rebuild-interval-ms:600000}",
+               initialDelayString = "${booking.movies.search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++) {
+            long changesBefore = changeCount();
+            Index rebuilt = new Index();
+            movieRepository.findAll().forEach(movie -> rebuilt.add(MovieResponseDTO.fromEntity(movie)));
+            lock.writeLock().lock();
+            try {
+                // A change applied while loading may be missing from the snapshot; keep the live index then
+                if (changeCount == changesBefore) {
+                    index = rebuilt;
+                    log.debug("Movie search index rebuilt with {} movies and {} terms",
+                            rebuilt.docs.size(), rebuilt.postings.size());
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("Movie search index rebuild skipped, movies kept changing");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        MovieResponseDTO movie = event.type() == MovieChangedEvent.Type.DELETED
+                ? null
+                : movieRepository.findById(event.movieId()).map(MovieResponseDTO::fromEntity).orElse(null);
+        lock.writeLock().lock();
+        try {
+            changeCount++;
+            index.remove(event.movieId());
+            if (movie != null) {
+                index.add(movie);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result search(String query, long offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = index.match(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Every query term has to match
+                    Map<Long, Double> previous = scores;
+                    scores.keySet().retainAll(termScores.keySet());
+                    termScores.forEach((id, score) -> previous.computeIfPresent(id, (key, sum) -> sum + score));
+                }
+                if (scores.isEmpty()) {
+                    return new Result(List.of(), 0);
+                }
+            }
+
+            // Past the last match: nothing to rank, but the total still tells the client where results end
+            if (offset >= scores.size()) {
+                return new Result(List.of(), scores.size());
+            }
+            Map<Long, Double> ranked = scores;
+            List<Long> ids = new ArrayList<>(ranked.keySet());
+            ids.sort(Comparator.<Long>comparingDouble(ranked::get).reversed()
+                    .thenComparing(id -> index.docs.get(id).movie().getTitle(),
+                            Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Comparator.naturalOrder()));
+            List<MovieResponseDTO> page = ids.stream()
+                    .skip(offset)
+                    .limit(limit)
+                    .map(id -> index.docs.get(id).movie())
+                    .toList();
+            return new Result(page, ids.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long changeCount() {
+        lock.readLock().lock();
+        try {
+            return changeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // True for an insertion, deletion, substitution or swap of two adjacent letters
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (la == lb) {
+            if (i == la) {
+                return true;
+            }
+            // Substitution, or a transposition of positions i and i + 1
+            return a.regionMatches(i + 1, b, i + 1, la - i - 1)
+                    || (i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                        && a.regionMatches(i + 2, b, i + 2, la - i - 2));
+        }
+        return la > lb
+                ? a.regionMatches(i + 1, b, i, lb - i)
+                : b.regionMatches(i + 1, a, i, la - i);
+    }
+
+    private static List<String> deletions(String term) {
+        List<String> deletions = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            deletions.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return deletions;
+    }
+
+    private record Doc(MovieResponseDTO movie, Set<String> terms) {
+    }
+
+    // Not thread-safe on its own; MovieSearchIndex guards it with the read/write lock
+    private static final class Index {
+        final Map<Long, Doc> docs = new HashMap<>();
+        // Sorted, so prefix matches are a subMap range
+        final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+        // Term and each of its one-letter deletions -> terms
+        final Map<String, Set<String>> variants = new HashMap<>();
+
+        void add(MovieResponseDTO movie) {
+            Map<String, Float> weights = new HashMap<>();
+            tokenize(movie.getTitle()).forEach(term -> weights.merge(term, TITLE_WEIGHT, Float::sum));
+            tokenize(movie.getGenre()).forEach(term -> weights.merge(term, GENRE_WEIGHT, Float::sum));
+            tokenize(movie.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> {
+                addVariants(key);
+                return new HashMap<>();
+            }).put(movie.getId(), weight));
+            docs.put(movie.getId(), new Doc(movie, weights.keySet()));
+        }
+
+        void remove(Long movieId) {
+            Doc doc = docs.remove(movieId);
+            if (doc == null) {
+                return;
+            }
+            for (String term : doc.terms()) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting != null && posting.remove(movieId) != null && posting.isEmpty()) {
+                    postings.remove(term);
+                    removeVariants(term);
+                }
+            }
+        }
+
+        // Best score per movie for one query term; rarer terms count for more
+        Map<Long, Double> match(String term) {
+            Map<Long, Double> scores = new HashMap<>();
+            collect(scores, postings.get(term), EXACT_MATCH);
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                postings.subMap(term, false, term + Character.MAX_VALUE, false)
+                        .values()
+                        .forEach(posting -> collect(scores, posting, PREFIX_MATCH));
+            }
+            if (term.length() >= MIN_FUZZY_LENGTH) {
+                Set<String> candidates = new HashSet<>(variants.getOrDefault(term, Set.of()));
+                for (String deletion : deletions(term)) {
+                    candidates.addAll(variants.getOrDefault(deletion, Set.of()));
+                }
+                for (String candidate : candidates) {
+                    if (!candidate.startsWith(term) && withinOneEdit(term, candidate)) {
+                        collect(scores, postings.get(candidate), FUZZY_MATCH);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        private void collect(Map<Long, Double> scores, Map<Long, Float> posting, double match) {
+            if (posting == null) {
+                return;
+            }
+            double idf = Math.log(1 + (double) docs.size() / posting.size());
+            posting.forEach((movieId, weight) -> scores.merge(movieId, match * weight * idf, Math::max));
+        }
+
+        private void addVariants(String term) {
+            variants.computeIfAbsent(term, key -> new HashSet<>()).add(term);
+            if (term.length() >= MIN_FUZZY_LENGTH - 1) {
+                deletions(term).forEach(deletion -> variants.computeIfAbsent(deletion, key -> new HashSet<>()).add(term));
+            }
+        }
+
+        private void removeVariants(String term) {
+            List<String> keys = new ArrayList<>(deletions(term));
+            keys.add(term);
+            for (String key : keys) {
+                Set<String> terms = variants.get(key);
+                if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                    variants.remove(key);
+                }
+            }
+        }
+    }
+}
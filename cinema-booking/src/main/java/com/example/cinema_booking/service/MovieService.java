@@ -1,22 +1,31 @@
 package com.example.cinema_booking.service;
 
+import com.example.cinema_booking.constants.BookingConstants;
 import com.example.cinema_booking.dto.request.MovieRequestDTO;
 import com.example.cinema_booking.dto.response.MovieResponseDTO;
 import com.example.cinema_booking.entity.Movie;
+import com.example.cinema_booking.event.MovieChangedEvent;
+import com.example.cinema_booking.exception.BookingException;
 import com.example.cinema_booking.repository.MovieRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MovieService {
     private final MovieRepository movieRepository;
+    private final MovieCatalogCache movieCatalogCache;
+    private final MovieSearchIndex movieSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Async
     @Transactional
@@ -29,24 +38,42 @@ public class MovieService {
                 .build();
         
         Movie savedMovie = movieRepository.save(movie);
+        eventPublisher.publishEvent(new MovieChangedEvent(savedMovie.getId(), MovieChangedEvent.Type.CREATED));
         return CompletableFuture.completedFuture(convertToDTO(savedMovie));
     }
 
+    // Not transactional: cache hits never need a connection, misses load through the repository
     @Async
-    @Transactional(readOnly = true)
-    public CompletableFuture<List<MovieResponseDTO>> getAllMovies() {
-        List<MovieResponseDTO> movies = movieRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return CompletableFuture.completedFuture(movies);
+    public CompletableFuture<MovieCatalogCache.Cached<List<MovieResponseDTO>>> getAllMovies(String genre) {
+        return CompletableFuture.completedFuture(genre == null || genre.isBlank()
+                ? movieCatalogCache.getAll()
+                : movieCatalogCache.getByGenre(genre));
     }
 
     @Async
-    @Transactional(readOnly = true)
-    public CompletableFuture<MovieResponseDTO> getMovieById(Long id) {
-        Movie movie = movieRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Movie not found with id: " + id));
-        return CompletableFuture.completedFuture(convertToDTO(movie));
+    public CompletableFuture<MovieCatalogCache.Cached<MovieResponseDTO>> getMovieById(Long id) {
+        return CompletableFuture.completedFuture(movieCatalogCache.get(id)
+                .orElseThrow(() -> new RuntimeException("Movie not found with id: " + id)));
+    }
+
+    // Served from the in-memory index; never touches the database
+    @Async
+    public CompletableFuture<Page<MovieResponseDTO>> searchMovies(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank() || query.length() > BookingConstants.MAX_SEARCH_QUERY_LENGTH) {
+            throw new BookingException("Search query must be between 1 and "
+                    + BookingConstants.MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? BookingConstants.DEFAULT_SEARCH_PAGE_SIZE : size;
+        if (pageNumber < 0) {
+            throw new BookingException("Page must not be negative");
+        }
+        if (pageSize < 1 || pageSize > BookingConstants.MAX_SEARCH_PAGE_SIZE) {
+            throw new BookingException("Page size must be between 1 and " + BookingConstants.MAX_SEARCH_PAGE_SIZE);
+        }
+        PageRequest pageable = PageRequest.of(pageNumber, pageSize);
+        MovieSearchIndex.Result result = movieSearchIndex.search(query, pageable.getOffset(), pageSize);
+        return CompletableFuture.completedFuture(new PageImpl<>(result.movies(), pageable, result.total()));
     }
 
     @Async
@@ -61,6 +88,7 @@ public class MovieService {
         movie.setTicketPrice(movieRequest.getTicketPrice());
 
         Movie updatedMovie = movieRepository.save(movie);
+        eventPublisher.publishEvent(new MovieChangedEvent(id, MovieChangedEvent.Type.UPDATED));
         return CompletableFuture.completedFuture(convertToDTO(updatedMovie));
     }
 
@@ -68,6 +96,7 @@ public class MovieService {
     @Transactional
     public CompletableFuture<Void> deleteMovie(Long id) {
         movieRepository.deleteById(id);
+        eventPublisher.publishEvent(new MovieChangedEvent(id, MovieChangedEvent.Type.DELETED));
         return CompletableFuture.completedFuture(null);
     }
 
@@ -80,4 +109,4 @@ public class MovieService {
                 .ticketPrice(movie.getTicketPrice())
                 .build();
     }
-} 
\ No newline at end of file
+} 
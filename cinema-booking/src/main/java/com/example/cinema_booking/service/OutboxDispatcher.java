@@ -0,0 +1,226 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.entity.OutboxEvent;
+import com.example.cinema_booking.enums.OutboxEventType;
+import com.example.cinema_booking.enums.OutboxStatus;
+import com.example.cinema_booking.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox in batches on a small dedicated pool, so payment, ticket and
+ * email work never runs on booking threads. Events of one booking run in order
+ * on one worker; different bookings run in parallel. Failed events are retried
+ * with exponential backoff and parked as FAILED after the last attempt; a retry
+ * skips the handlers that already delivered the event. In cluster mode only the
+ * lease holder dispatches, and each batch is claimed (IN_PROGRESS) under row
+ * locks, so an instance that overlaps it around a lease handover cannot deliver
+ * the same events.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    static final String DISPATCH_LEASE = "outbox-dispatcher";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ClusterLeaseManager clusterLeaseManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<OutboxEventType, List<OutboxHandler>> handlers = new EnumMap<>(OutboxEventType.class);
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration claimTimeout;
+    private final Duration retention;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            ClusterLeaseManager clusterLeaseManager,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            List<OutboxHandler> outboxHandlers,
+                            @Value("${booking.outbox.parallelism:4}") int parallelism,
+                            @Value("${booking.outbox.batch-size:100}") int batchSize,
+                            @Value("${booking.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${booking.outbox.retry-backoff-seconds:5}") long retryBackoffSeconds,
+                            @Value("${booking.outbox.max-retry-backoff-seconds:300}") long maxRetryBackoffSeconds,
+                            @Value("${booking.outbox.claim-timeout-seconds:300}") long claimTimeoutSeconds,
+                            @Value("${booking.outbox.retention-hours:168}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.clusterLeaseManager = clusterLeaseManager;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofSeconds(retryBackoffSeconds);
+        this.maxRetryBackoff = Duration.ofSeconds(maxRetryBackoffSeconds);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.retention = Duration.ofHours(retentionHours);
+        Set<String> names = new HashSet<>();
+        for (OutboxHandler handler : outboxHandlers) {
+            if (handler.name().contains(",") || !names.add(handler.name())) {
+                throw new IllegalStateException("Outbox handler names must be unique and comma-free: " + handler.name());
+            }
+            handler.eventTypes().forEach(type -> handlers.computeIfAbsent(type, t -> new ArrayList<>()).add(handler));
+        }
+        this.workers = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("outbox-", 1).factory());
+        log.info("Outbox dispatcher running {} workers for {}", parallelism, handlers.keySet());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!clusterLeaseManager.tryAcquire(DISPATCH_LEASE)) {
+            return;
+        }
+        try {
+            // A long drain renews the lease before every further batch and stops once it is lost
+            boolean more;
+            do {
+                more = dispatchBatch() == batchSize;
+            } while (more && clusterLeaseManager.tryAcquire(DISPATCH_LEASE));
+        } catch (Exception e) {
+            log.error("Outbox dispatch failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.cleanup-interval-ms:3600000}")
+    public void deleteProcessed() {
+        if (clusterLeaseManager.tryAcquire(DISPATCH_LEASE)) {
+            int deleted = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+            if (deleted > 0) {
+                log.info("Deleted {} processed outbox events", deleted);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> due = transactionTemplate.execute(status -> {
+            List<OutboxEvent> locked = outboxEventRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            if (!locked.isEmpty()) {
+                outboxEventRepository.claim(locked.stream().map(OutboxEvent::getId).toList(), now.plus(claimTimeout));
+            }
+            return locked;
+        });
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Exception> failures = new ConcurrentHashMap<>();
+        Map<Long, List<OutboxEvent>> byBooking = due.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getAggregateId, LinkedHashMap::new, Collectors.toList()));
+        CompletableFuture.allOf(byBooking.values().stream()
+                .map(events -> CompletableFuture.runAsync(() -> deliverInOrder(events, failures), workers))
+                .toArray(CompletableFuture[]::new))
+                .join();
+
+        List<Long> processed = due.stream()
+                .map(OutboxEvent::getId)
+                .filter(id -> !failures.containsKey(id))
+                .toList();
+        if (!processed.isEmpty()) {
+            outboxEventRepository.markProcessed(processed, LocalDateTime.now());
+        }
+        due.stream()
+                .filter(event -> failures.containsKey(event.getId()))
+                .forEach(event -> recordFailure(event, failures.get(event.getId())));
+        return due.size();
+    }
+
+    // A failed event holds back the later events of the same booking, which are rescheduled with it
+    private void deliverInOrder(List<OutboxEvent> events, Map<Long, Exception> failures) {
+        Long failedEventId = null;
+        for (OutboxEvent event : events) {
+            if (failedEventId != null) {
+                failures.put(event.getId(), new IllegalStateException("Held back by failed outbox event " + failedEventId));
+                continue;
+            }
+            try {
+                Set<String> delivered = deliveredHandlers(event);
+                for (OutboxHandler handler : handlers.getOrDefault(event.getEventType(), List.of())) {
+                    if (delivered.contains(handler.name())) {
+                        continue;
+                    }
+                    handler.handle(event);
+                    delivered.add(handler.name());
+                    // Recorded right away, so a retry after a later handler fails does not run this one again
+                    outboxEventRepository.recordDelivered(event.getId(), String.join(",", delivered));
+                }
+                count(event, "success");
+            } catch (Exception e) {
+                failures.put(event.getId(), e);
+                failedEventId = event.getId();
+            }
+        }
+    }
+
+    private static Set<String> deliveredHandlers(OutboxEvent event) {
+        Set<String> delivered = new LinkedHashSet<>();
+        if (event.getDeliveredHandlers() != null && !event.getDeliveredHandlers().isBlank()) {
+            delivered.addAll(Arrays.asList(event.getDeliveredHandlers().split(",")));
+        }
+        return delivered;
+    }
+
+    private void recordFailure(OutboxEvent event, Exception failure) {
+        int attempts = event.getAttempts() + 1;
+        boolean exhausted = attempts >= maxAttempts;
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        if (backoff.compareTo(maxRetryBackoff) > 0) {
+            backoff = maxRetryBackoff;
+        }
+        String error = String.valueOf(failure.getMessage());
+        outboxEventRepository.recordFailure(event.getId(),
+                exhausted ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                LocalDateTime.now().plus(backoff),
+                error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        count(event, exhausted ? "failed" : "retry");
+        if (exhausted) {
+            log.error("Outbox event {} ({} for booking {}) failed after {} attempts",
+                    event.getId(), event.getEventType(), event.getAggregateId(), attempts, failure);
+        } else {
+            log.warn("Outbox event {} failed (attempt {}), retrying in {}s: {}",
+                    event.getId(), attempts, backoff.toSeconds(), error);
+        }
+    }
+
+    private void count(OutboxEvent event, String outcome) {
+        Counter.builder("booking.outbox.deliveries")
+                .description("Outbox events handed to downstream handlers")
+                .tag("type", event.getEventType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.entity.OutboxEvent;
+import com.example.cinema_booking.enums.OutboxEventType;
+
+import java.util.Set;
+
+/**
+ * Downstream work triggered by an outbox event. Delivery is at least once per
+ * handler: a retry skips the handlers that already delivered the event, but a
+ * crash right after a handler succeeds runs it again, so handlers must be
+ * idempotent, e.g. keyed by the event id.
+ */
+public interface OutboxHandler {
+    // Stable id recorded on the event once this handler has delivered it; must not change across releases
+    String name();
+
+    Set<OutboxEventType> eventTypes();
+
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,48 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.entity.OutboxEvent;
+import com.example.cinema_booking.enums.OutboxEventType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for payment capture when a booking is confirmed.
+ * Fails at {@code booking.outbox.stub.failure-rate} to exercise the retry path.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.outbox.stub-handlers.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentCaptureStubHandler implements OutboxHandler {
+    private final long latencyMillis;
+    private final double failureRate;
+
+    public PaymentCaptureStubHandler(@Value("${booking.outbox.stub.latency-ms:50}") long latencyMillis,
+                                     @Value("${booking.outbox.stub.failure-rate:0.0}") double failureRate) {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String name() {
+        return "payment-capture";
+    }
+
+    @Override
+    public Set<OutboxEventType> eventTypes() {
+        return Set.of(OutboxEventType.BOOKING_CONFIRMED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws InterruptedException {
+        Thread.sleep(latencyMillis);
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated payment provider failure");
+        }
+        log.info("Captured payment for booking {} (event {})", event.getAggregateId(), event.getId());
+    }
+}
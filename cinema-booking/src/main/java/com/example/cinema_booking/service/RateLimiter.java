@@ -0,0 +1,152 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.constants.BookingConstants;
+import com.example.cinema_booking.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory throttling for the reserve and book endpoints, applied before a
+ * request reaches the executor or the connection pool: token buckets per client
+ * IP and per customer email, and a global cap of
+ * {@link BookingConstants#MAX_CONCURRENT_BOOKINGS} booking requests in flight.
+ *
+ * Each bucket is one AtomicLong holding its theoretical arrival time (GCRA), so
+ * taking a token is a single compare-and-set. Buckets sit in a size-bounded
+ * Caffeine cache and expire once they would have refilled completely, so an
+ * expired bucket is indistinguishable from a fresh one. Limits are per instance.
+ */
+@Component
+public class RateLimiter {
+    public static final String CUSTOMER_HEADER = "X-Customer-Email";
+
+    private final boolean enabled;
+    private final Limit clientLimit;
+    private final Limit customerLimit;
+    private final Semaphore bookingsInFlight = new Semaphore(BookingConstants.MAX_CONCURRENT_BOOKINGS);
+    private final Counter inFlightRejected;
+
+    public RateLimiter(@Value("${booking.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${booking.rate-limit.client.capacity:20}") int clientCapacity,
+                       @Value("${booking.rate-limit.client.refill-per-second:5}") double clientRefillPerSecond,
+                       @Value("${booking.rate-limit.customer.capacity:10}") int customerCapacity,
+                       @Value("${booking.rate-limit.customer.refill-per-second:1}") double customerRefillPerSecond,
+                       @Value("${booking.rate-limit.max-keys:100000}") long maxKeys,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clientLimit = new Limit("client", clientCapacity, clientRefillPerSecond, maxKeys, meterRegistry);
+        this.customerLimit = new Limit("customer", customerCapacity, customerRefillPerSecond, maxKeys, meterRegistry);
+        this.inFlightRejected = Counter.builder("booking.ratelimit.rejected")
+                .description("Booking requests rejected with 429 before reaching the database")
+                .tag("limit", "in-flight")
+                .register(meterRegistry);
+        Gauge.builder("booking.ratelimit.inflight", this, RateLimiter::getBookingsInFlight)
+                .description("Reserve and book requests currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("booking.ratelimit.keys", this, RateLimiter::getTrackedKeys)
+                .description("Client and customer token buckets held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Who a seat hold counts against. The email header is not authenticated, so
+     * holds are capped per client IP as well as per email.
+     */
+    public record Holder(String customer, String clientIp) {
+    }
+
+    public static Holder holderOf(String customerEmail, String clientIp) {
+        return new Holder(customerEmail == null || customerEmail.isBlank() ? null : normalize(customerEmail), clientIp);
+    }
+
+    public void checkClient(String clientIp) {
+        if (enabled && clientIp != null) {
+            clientLimit.acquire(clientIp);
+        }
+    }
+
+    public void checkCustomer(String customerEmail) {
+        if (enabled && customerEmail != null && !customerEmail.isBlank()) {
+            customerLimit.acquire(normalize(customerEmail));
+        }
+    }
+
+    /** Takes one of the in-flight booking slots; pair with {@link #exitBooking()}. */
+    public void enterBooking() {
+        if (enabled && !bookingsInFlight.tryAcquire()) {
+            inFlightRejected.increment();
+            throw new TooManyRequestsException("Too many bookings are in progress. Please retry shortly", 1);
+        }
+    }
+
+    public void exitBooking() {
+        if (enabled) {
+            bookingsInFlight.release();
+        }
+    }
+
+    public int getBookingsInFlight() {
+        return BookingConstants.MAX_CONCURRENT_BOOKINGS - bookingsInFlight.availablePermits();
+    }
+
+    public long getTrackedKeys() {
+        return clientLimit.buckets.estimatedSize() + customerLimit.buckets.estimatedSize();
+    }
+
+    private static String normalize(String customerEmail) {
+        return customerEmail.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static final class Limit {
+        final long intervalNanos;
+        final long burstNanos;
+        final Cache<String, AtomicLong> buckets;
+        final Counter rejected;
+
+        Limit(String name, int capacity, double refillPerSecond, long maxKeys, MeterRegistry meterRegistry) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            this.burstNanos = intervalNanos * Math.max(1, capacity);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(burstNanos))
+                    .build();
+            this.rejected = Counter.builder("booking.ratelimit.rejected")
+                    .description("Booking requests rejected with 429 before reaching the database")
+                    .tag("limit", name)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key) {
+            acquire(key, System.nanoTime());
+        }
+
+        void acquire(String key, long now) {
+            // A new bucket starts full: its arrival time is now
+            AtomicLong arrival = buckets.get(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = arrival.get();
+                long next = (current - now > 0 ? current : now) + intervalNanos;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    rejected.increment();
+                    throw new TooManyRequestsException("Too many booking requests. Please slow down",
+                            TimeUnit.NANOSECONDS.toSeconds(excess + TimeUnit.SECONDS.toNanos(1) - 1));
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.entity.Booking;
+import com.example.cinema_booking.enums.BookingStatus;
+import com.example.cinema_booking.enums.SeatStatus;
+import com.example.cinema_booking.event.SalesEvent;
+import com.example.cinema_booking.repository.BookingRepository;
+import com.example.cinema_booking.repository.SeatHoldView;
+import com.example.cinema_booking.repository.SeatRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Releases expired seat holds and pending bookings.
+ *
+ * The source of truth is the database: every hold carries a reserved_until
+ * timestamp and every pending booking an expiration_time. Holds created by this
+ * instance are also dropped into one-second-granularity time buckets so they are
+ * released close to their deadline without polling the seat table; a periodic
+ * (and startup) sweep catches everything else, e.g. holds left over from a
+ * restart.
+ */
+@Slf4j
+@Service
+public class ReservationExpiryService {
+    static final String SWEEP_LEASE = "reservation-expiry-sweep";
+
+    private final SeatRepository seatRepository;
+    private final BookingRepository bookingRepository;
+    private final RetryPolicy retryPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final SeatMapCache seatMapCache;
+    private final SeatMapStreamService seatMapStreamService;
+    private final ClusterLeaseManager clusterLeaseManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long bucketSeconds;
+    private final int batchSize;
+
+    private final ConcurrentSkipListMap<Long, Queue<Hold>> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+
+    public ReservationExpiryService(SeatRepository seatRepository,
+                                    BookingRepository bookingRepository,
+                                    RetryPolicy retryPolicy,
+                                    TransactionTemplate transactionTemplate,
+                                    SeatMapCache seatMapCache,
+                                    SeatMapStreamService seatMapStreamService,
+                                    ClusterLeaseManager clusterLeaseManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${booking.expiry.bucket-seconds:1}") long bucketSeconds,
+                                    @Value("${booking.expiry.batch-size:500}") int batchSize,
+                                    MeterRegistry meterRegistry) {
+        this.seatRepository = seatRepository;
+        this.bookingRepository = bookingRepository;
+        this.retryPolicy = retryPolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.seatMapCache = seatMapCache;
+        this.seatMapStreamService = seatMapStreamService;
+        this.clusterLeaseManager = clusterLeaseManager;
+        this.eventPublisher = eventPublisher;
+        this.bucketSeconds = Math.max(1, bucketSeconds);
+        this.batchSize = batchSize;
+        Gauge.builder("booking.expiry.backlog", this, ReservationExpiryService::getBacklogSize)
+                .description("Seat holds queued for timed release")
+                .register(meterRegistry);
+    }
+
+    public record Hold(Long screeningId, Long seatId) {
+    }
+
+    public void scheduleRelease(Long screeningId, Long seatId, LocalDateTime reservedUntil) {
+        // Round up so a bucket never becomes due before all of its holds have expired
+        long epochSecond = reservedUntil.toEpochSecond(ZoneOffset.UTC);
+        long bucket = (epochSecond + bucketSeconds - 1) / bucketSeconds;
+        buckets.computeIfAbsent(bucket, k -> new ConcurrentLinkedQueue<>()).add(new Hold(screeningId, seatId));
+        backlog.incrementAndGet();
+    }
+
+    public int getBacklogSize() {
+        return backlog.get();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.expiry.tick-ms:1000}")
+    public void releaseDueHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowBucket = now.toEpochSecond(ZoneOffset.UTC) / bucketSeconds;
+
+        List<Hold> due = new ArrayList<>();
+        ConcurrentNavigableMap<Long, Queue<Hold>> dueBuckets = buckets.headMap(nowBucket, true);
+        for (Map.Entry<Long, Queue<Hold>> entry : dueBuckets.entrySet()) {
+            if (buckets.remove(entry.getKey(), entry.getValue())) {
+                due.addAll(entry.getValue());
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        backlog.addAndGet(-due.size());
+
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Hold> chunk = due.subList(from, Math.min(from + batchSize, due.size()));
+            List<Long> seatIds = chunk.stream()
+                    .map(Hold::seatId)
+                    .collect(Collectors.toList());
+            try {
+                // Holds that were booked, released or extended in the meantime are skipped by the WHERE clause
+                if (seatRepository.releaseExpiredHolds(seatIds, now) > 0) {
+                    onScreeningsChanged(chunk.stream().map(Hold::screeningId).collect(Collectors.toSet()));
+                }
+            } catch (Exception e) {
+                log.error("Failed to release {} expired seat holds", seatIds.size(), e);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepOnStartup() {
+        if (clusterLeaseManager.tryAcquire(SWEEP_LEASE)) {
+            log.info("Sweeping reservations and pending bookings that expired while the application was down");
+            sweep();
+        }
+    }
+
+    // In cluster mode only the instance holding the sweep lease scans the tables
+    @Scheduled(fixedDelayString = "${booking.expiry.sweep-interval-ms:60000}",
+               initialDelayString = "${booking.expiry.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        if (clusterLeaseManager.tryAcquire(SWEEP_LEASE)) {
+            sweep();
+        }
+    }
+
+    private void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int releasedHolds = 0;
+            List<SeatHoldView> expiredHolds;
+            do {
+                expiredHolds = seatRepository.findExpiredHolds(now, PageRequest.of(0, batchSize));
+                if (!expiredHolds.isEmpty()) {
+                    releasedHolds += seatRepository.releaseExpiredHolds(
+                            expiredHolds.stream().map(SeatHoldView::getId).collect(Collectors.toList()), now);
+                    onScreeningsChanged(
+                            expiredHolds.stream().map(SeatHoldView::getScreeningId).collect(Collectors.toSet()));
+                }
+            } while (expiredHolds.size() == batchSize);
+
+            int expiredBookings = 0;
+            int batch;
+            do {
+                batch = expirePendingBookingBatch(now);
+                expiredBookings += batch;
+            } while (batch == batchSize);
+
+            if (releasedHolds > 0 || expiredBookings > 0) {
+                log.info("Expiry sweep released {} seat holds and expired {} pending bookings",
+                        releasedHolds, expiredBookings);
+            }
+        } catch (Exception e) {
+            log.error("Reservation expiry sweep failed", e);
+        }
+    }
+
+    private int expirePendingBookingBatch(LocalDateTime now) {
+        Set<Long> affectedScreenings = new HashSet<>();
+        Integer expired = retryPolicy.execute("expire", () -> transactionTemplate.execute(status -> {
+            affectedScreenings.clear();
+            List<Booking> bookings = bookingRepository.findExpiredPendingForUpdate(now, PageRequest.of(0, batchSize));
+            if (bookings.isEmpty()) {
+                return 0;
+            }
+
+            // Dirty versioned entities are flushed as one JDBC batch at commit
+            bookings.forEach(booking -> booking.setStatus(BookingStatus.CANCELLED));
+            bookings.forEach(booking -> eventPublisher.publishEvent(new SalesEvent(SalesEvent.Type.EXPIRED,
+                    booking.getScreening().getMovie().getId(), booking.getScreening().getScreeningTime(),
+                    1, booking.getTotalPrice())));
+
+            Map<Long, List<Long>> seatIdsByScreening = bookings.stream()
+                    .collect(Collectors.groupingBy(
+                            booking -> booking.getSeat().getScreening().getId(),
+                            Collectors.mapping(booking -> booking.getSeat().getId(), Collectors.toList())));
+            seatIdsByScreening.forEach((screeningId, seatIds) -> {
+                if (seatRepository.releaseSeats(seatIds, SeatStatus.BOOKED) > 0) {
+                    affectedScreenings.add(screeningId);
+                }
+            });
+            return bookings.size();
+        }));
+        onScreeningsChanged(affectedScreenings);
+        return expired == null ? 0 : expired;
+    }
+
+    private void onScreeningsChanged(Set<Long> screeningIds) {
+        if (screeningIds.isEmpty()) {
+            return;
+        }
+        seatMapCache.invalidateAll(screeningIds);
+        seatMapStreamService.resync(screeningIds);
+    }
+}
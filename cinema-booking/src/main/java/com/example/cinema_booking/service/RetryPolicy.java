@@ -0,0 +1,154 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.exception.ConcurrencyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a unit of work that lost a race on a versioned row (optimistic lock
+ * failure) or was picked as a deadlock / lock-wait victim. Attempts are bounded
+ * and spaced with exponential backoff and full jitter, so colliding requests
+ * spread out instead of retrying in lock step. The action must open its own
+ * transaction, since a failed one can only be rolled back.
+ *
+ * Work that runs under a screening lock or an executor permit goes through
+ * {@link #executeAsync}: each attempt takes them afresh and the backoff is a
+ * timer, so a waiting retry never holds up the rest of the show.
+ */
+@Slf4j
+@Component
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final MeterRegistry meterRegistry;
+
+    public RetryPolicy(@Value("${booking.retry.max-attempts:3}") int maxAttempts,
+                       @Value("${booking.retry.initial-backoff-ms:10}") long initialBackoffMillis,
+                       @Value("${booking.retry.max-backoff-ms:100}") long maxBackoffMillis,
+                       MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = action.get();
+                if (attempt > 1) {
+                    count(operation, "recovered");
+                }
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    count(operation, "exhausted");
+                    log.warn("Giving up on {} after {} conflicting attempts", operation, attempt);
+                    throw new ConcurrencyException("The data was modified by another request. Please try again.", e);
+                }
+                count(operation, "retried");
+                log.debug("Retrying {} after conflict (attempt {}): {}", operation, attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Asynchronous variant: {@code attempt} is called again for every try and the
+     * delay between tries runs on a timer, not on the caller's thread.
+     */
+    public <T> CompletableFuture<T> executeAsync(String operation, Supplier<CompletableFuture<T>> attempt) {
+        return executeAsync(operation, attempt, 1);
+    }
+
+    private <T> CompletableFuture<T> executeAsync(String operation, Supplier<CompletableFuture<T>> attempt,
+                                                  int attemptNumber) {
+        CompletableFuture<T> future;
+        try {
+            future = attempt.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future
+                .thenApply(result -> {
+                    if (attemptNumber > 1) {
+                        count(operation, "recovered");
+                    }
+                    return result;
+                })
+                .exceptionallyCompose(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (!isRetryable(cause)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    if (attemptNumber >= maxAttempts) {
+                        count(operation, "exhausted");
+                        log.warn("Giving up on {} after {} conflicting attempts", operation, attemptNumber);
+                        return CompletableFuture.failedFuture(new ConcurrencyException(
+                                "The data was modified by another request. Please try again.", cause));
+                    }
+                    count(operation, "retried");
+                    log.debug("Retrying {} after conflict (attempt {}): {}", operation, attemptNumber, cause.getMessage());
+                    return CompletableFuture.runAsync(() -> { },
+                                    CompletableFuture.delayedExecutor(backoffMillis(attemptNumber), TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> executeAsync(operation, attempt, attemptNumber + 1));
+                });
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException
+                    || t instanceof PessimisticLockingFailureException
+                    || t instanceof jakarta.persistence.OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(backoffMillis(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyException("Retry was interrupted");
+        }
+    }
+
+    // Full jitter: a random time up to the capped exponential delay
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void count(String operation, String outcome) {
+        Counter.builder("booking.retry")
+                .description("Optimistic lock and deadlock retries")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.response.SalesReportDTO;
+import com.example.cinema_booking.exception.BookingException;
+import com.example.cinema_booking.repository.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Reports read sales_rollup only; ranges are by screening date and include both ends
+@Service
+@RequiredArgsConstructor
+public class SalesReportService {
+    static final int DEFAULT_RANGE_DAYS = 30;
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final SalesRollupRepository salesRollupRepository;
+
+    @Async
+    @Transactional(readOnly = true)
+    public CompletableFuture<List<SalesReportDTO>> getByMovie(LocalDate from, LocalDate to, Long movieId) {
+        Range range = range(from, to);
+        return CompletableFuture.completedFuture(salesRollupRepository.sumByMovie(range.from(), range.to(), movieId)
+                .stream()
+                .map(row -> SalesReportDTO.fromTotals(row).toBuilder()
+                        .movieId(row.getMovieId())
+                        .movieTitle(row.getMovieTitle())
+                        .build())
+                .toList());
+    }
+
+    @Async
+    @Transactional(readOnly = true)
+    public CompletableFuture<List<SalesReportDTO>> getByDay(LocalDate from, LocalDate to, Long movieId) {
+        Range range = range(from, to);
+        return CompletableFuture.completedFuture(salesRollupRepository.sumByDay(range.from(), range.to(), movieId)
+                .stream()
+                .map(row -> SalesReportDTO.fromTotals(row).toBuilder()
+                        .movieId(movieId)
+                        .date(row.getBucketDate())
+                        .build())
+                .toList());
+    }
+
+    // Hour-of-day profile over the whole range
+    @Async
+    @Transactional(readOnly = true)
+    public CompletableFuture<List<SalesReportDTO>> getByHour(LocalDate from, LocalDate to, Long movieId) {
+        Range range = range(from, to);
+        return CompletableFuture.completedFuture(salesRollupRepository.sumByHour(range.from(), range.to(), movieId)
+                .stream()
+                .map(row -> SalesReportDTO.fromTotals(row).toBuilder()
+                        .movieId(movieId)
+                        .hour(row.getBucketHour())
+                        .build())
+                .toList());
+    }
+
+    // Defaults to the last DEFAULT_RANGE_DAYS days up to today
+    private static Range range(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new BookingException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new BookingException("A report can cover at most " + MAX_RANGE_DAYS + " days");
+        }
+        return new Range(start, end);
+    }
+
+    private record Range(LocalDate from, LocalDate to) {
+    }
+}
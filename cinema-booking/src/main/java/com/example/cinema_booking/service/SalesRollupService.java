@@ -0,0 +1,164 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.event.SalesEvent;
+import com.example.cinema_booking.repository.SalesRollupJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the sales_rollup counters up to date from committed booking and
+ * screening transitions. Events are folded into per-bucket deltas in memory and
+ * flushed periodically as one batch of additive upserts, so a burst of bookings
+ * for one screening costs one row update per flush instead of a hot-row update
+ * per booking. Deltas not yet flushed are lost if the process dies, at most one
+ * flush interval's worth; a graceful shutdown flushes them.
+ */
+@Slf4j
+@Service
+public class SalesRollupService {
+    private final SalesRollupJdbcRepository salesRollupJdbcRepository;
+    private final Counter flushFailures;
+
+    private final ConcurrentHashMap<Bucket, Delta> pending = new ConcurrentHashMap<>();
+
+    public SalesRollupService(SalesRollupJdbcRepository salesRollupJdbcRepository, MeterRegistry meterRegistry) {
+        this.salesRollupJdbcRepository = salesRollupJdbcRepository;
+        this.flushFailures = Counter.builder("booking.analytics.flush.failures")
+                .description("Sales rollup flushes that failed and were kept for the next attempt")
+                .register(meterRegistry);
+        Gauge.builder("booking.analytics.pending.buckets", this, SalesRollupService::getPendingBuckets)
+                .description("Sales rollup buckets with deltas waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onSalesEvent(SalesEvent event) {
+        if (event.movieId() == null || event.screeningTime() == null) {
+            return;
+        }
+        Bucket bucket = new Bucket(event.movieId(), event.screeningTime().toLocalDate(),
+                event.screeningTime().getHour());
+        // Updating inside compute() makes it atomic with the flush's remove() of the same bucket
+        pending.compute(bucket, (key, delta) -> {
+            Delta updated = delta == null ? new Delta() : delta;
+            updated.apply(event);
+            return updated;
+        });
+    }
+
+    public int getPendingBuckets() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.analytics.flush-interval-ms:5000}")
+    public void flush() {
+        List<SalesRollupJdbcRepository.Delta> batch = new ArrayList<>();
+        List<Bucket> buckets = new ArrayList<>(pending.keySet());
+        // Same row order on every instance, so concurrent flushes cannot deadlock
+        buckets.sort(Comparator.comparing(Bucket::movieId)
+                .thenComparing(Bucket::date)
+                .thenComparingInt(Bucket::hour));
+        List<Bucket> drained = new ArrayList<>(buckets.size());
+        List<Delta> drainedDeltas = new ArrayList<>(buckets.size());
+        for (Bucket bucket : buckets) {
+            Delta delta = pending.remove(bucket);
+            if (delta != null) {
+                drained.add(bucket);
+                drainedDeltas.add(delta);
+                batch.add(delta.toRow(bucket));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            salesRollupJdbcRepository.addAll(batch, LocalDateTime.now());
+        } catch (Exception e) {
+            // Put the deltas back so the next flush retries them
+            flushFailures.increment();
+            log.error("Failed to flush {} sales rollup buckets", batch.size(), e);
+            for (int i = 0; i < drained.size(); i++) {
+                Delta failed = drainedDeltas.get(i);
+                pending.merge(drained.get(i), failed, (current, ignored) -> {
+                    current.add(failed);
+                    return current;
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record Bucket(Long movieId, LocalDate date, int hour) {
+    }
+
+    // Only touched inside ConcurrentHashMap.compute/merge or after being removed from the map
+    private static final class Delta {
+        int screenings;
+        int capacity;
+        int bookings;
+        int confirmations;
+        int cancellations;
+        int expirations;
+        double revenue;
+        double confirmedRevenue;
+
+        void apply(SalesEvent event) {
+            switch (event.type()) {
+                case SCREENING_SCHEDULED -> {
+                    screenings++;
+                    capacity += event.seats();
+                }
+                case BOOKED -> {
+                    bookings += event.seats();
+                    revenue += event.amount();
+                }
+                case CONFIRMED -> {
+                    confirmations += event.seats();
+                    confirmedRevenue += event.amount();
+                }
+                case CANCELLED -> {
+                    cancellations += event.seats();
+                    revenue -= event.amount();
+                }
+                case EXPIRED -> {
+                    expirations += event.seats();
+                    revenue -= event.amount();
+                }
+            }
+        }
+
+        void add(Delta other) {
+            screenings += other.screenings;
+            capacity += other.capacity;
+            bookings += other.bookings;
+            confirmations += other.confirmations;
+            cancellations += other.cancellations;
+            expirations += other.expirations;
+            revenue += other.revenue;
+            confirmedRevenue += other.confirmedRevenue;
+        }
+
+        SalesRollupJdbcRepository.Delta toRow(Bucket bucket) {
+            return new SalesRollupJdbcRepository.Delta(bucket.movieId(), bucket.date(), bucket.hour(),
+                    screenings, capacity, bookings, confirmations, cancellations, expirations,
+                    revenue, confirmedRevenue);
+        }
+    }
+}
@@ -1,62 +1,133 @@
 package com.example.cinema_booking.service;
 
+import com.example.cinema_booking.constants.BookingConstants;
+import com.example.cinema_booking.dto.request.BulkScreeningRequestDTO;
 import com.example.cinema_booking.dto.request.ScreeningRequestDTO;
 import com.example.cinema_booking.dto.response.MovieResponseDTO;
 import com.example.cinema_booking.dto.response.ScreeningResponseDTO;
 import com.example.cinema_booking.dto.response.SeatResponseDTO;
 import com.example.cinema_booking.entity.Movie;
 import com.example.cinema_booking.entity.Screening;
-import com.example.cinema_booking.entity.Seat;
+import com.example.cinema_booking.entity.SeatLayout;
 import com.example.cinema_booking.enums.SeatStatus;
+import com.example.cinema_booking.event.SalesEvent;
 import com.example.cinema_booking.repository.MovieRepository;
+import com.example.cinema_booking.repository.ScreeningJdbcRepository;
 import com.example.cinema_booking.repository.ScreeningRepository;
+import com.example.cinema_booking.repository.ScreeningSummaryView;
+import com.example.cinema_booking.repository.SeatLayoutRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ScreeningService {
     private final ScreeningRepository screeningRepository;
     private final MovieRepository movieRepository;
+    private final SeatMapCache seatMapCache;
+    private final ScreeningJdbcRepository screeningJdbcRepository;
+    private final SeatLayoutRepository seatLayoutRepository;
+    private final SeatLayoutService seatLayoutService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Async
     @Transactional
     public CompletableFuture<ScreeningResponseDTO> createScreening(ScreeningRequestDTO request) {
-        Movie movie = movieRepository.findById(request.getMovieId())
-                .orElseThrow(() -> new RuntimeException("Movie not found"));
+        Screening savedScreening = importScreenings(List.of(request)).get(0);
+        return CompletableFuture.completedFuture(convertToDTO(savedScreening));
+    }
 
-        Screening screening = Screening.builder()
-                .movie(movie)
-                .screeningTime(request.getScreeningTime())
-                .totalSeats(request.getTotalSeats())
-                .availableSeats(request.getTotalSeats())
-                .seats(ConcurrentHashMap.newKeySet())
-                .build();
+    @Async
+    @Transactional
+    public CompletableFuture<List<ScreeningResponseDTO>> createScreenings(BulkScreeningRequestDTO request) {
+        List<ScreeningRequestDTO> screenings = request.getScreenings();
+        if (screenings == null || screenings.isEmpty()) {
+            throw new RuntimeException("At least one screening is required");
+        }
+        if (screenings.size() > BookingConstants.MAX_SCREENINGS_PER_IMPORT) {
+            throw new RuntimeException("An import cannot contain more than "
+                    + BookingConstants.MAX_SCREENINGS_PER_IMPORT + " screenings");
+        }
+        List<ScreeningResponseDTO> created = importScreenings(screenings).stream()
+                .map(this::convertToDTO)
+                .toList();
+        return CompletableFuture.completedFuture(created);
+    }
 
-        // Create seats
-        for (int row = 0; row < request.getRowCount(); row++) {
-            String rowLabel = String.valueOf((char) ('A' + row));
-            for (int seatNum = 1; seatNum <= request.getSeatsPerRow(); seatNum++) {
-                Seat seat = Seat.builder()
-                        .screening(screening)
-                        .seatRow(rowLabel)
-                        .seatNumber(String.valueOf(seatNum))
-                        .status(SeatStatus.AVAILABLE)
-                        .build();
-                screening.getSeats().add(seat);
+    /**
+     * Creates the screenings and all of their seats with batched JDBC inserts, from a
+     * layout template or a plain rowCount x seatsPerRow grid. Runs in the caller's
+     * transaction, so a failing import leaves nothing behind.
+     */
+    @Transactional
+    public List<Screening> importScreenings(List<ScreeningRequestDTO> requests) {
+        Set<Long> movieIds = new HashSet<>();
+        Set<Long> layoutIds = new HashSet<>();
+        for (ScreeningRequestDTO request : requests) {
+            validate(request);
+            movieIds.add(request.getMovieId());
+            if (request.getLayoutId() != null) {
+                layoutIds.add(request.getLayoutId());
             }
         }
-
-        Screening savedScreening = screeningRepository.save(screening);
-        return CompletableFuture.completedFuture(convertToDTO(savedScreening));
+        Map<Long, Movie> movies = new HashMap<>();
+        movieRepository.findAllById(movieIds).forEach(movie -> movies.put(movie.getId(), movie));
+        Map<Long, SeatLayout> layouts = new HashMap<>();
+        seatLayoutRepository.findAllById(layoutIds).forEach(layout -> layouts.put(layout.getId(), layout));
+
+        List<Screening> screenings = new ArrayList<>(requests.size());
+        List<List<ScreeningJdbcRepository.RowSeats>> seatRows = new ArrayList<>(requests.size());
+        for (ScreeningRequestDTO request : requests) {
+            Movie movie = movies.get(request.getMovieId());
+            if (movie == null) {
+                throw new RuntimeException("Movie not found: " + request.getMovieId());
+            }
+            SeatLayout layout = null;
+            if (request.getLayoutId() != null) {
+                layout = layouts.get(request.getLayoutId());
+                if (layout == null) {
+                    throw new RuntimeException("Layout not found: " + request.getLayoutId());
+                }
+            }
+            List<ScreeningJdbcRepository.RowSeats> rows = seatRows(request, layout);
+            int seatCount = rows.stream().mapToInt(ScreeningJdbcRepository.RowSeats::seats).sum();
+            if (request.getTotalSeats() != null && request.getTotalSeats() != seatCount) {
+                throw new RuntimeException("Total seats must equal the number of seats in the layout");
+            }
+            seatRows.add(rows);
+            screenings.add(Screening.builder()
+                    .movie(movie)
+                    .layout(layout)
+                    .screeningTime(request.getScreeningTime())
+                    .totalSeats(seatCount)
+                    .availableSeats(seatCount)
+                    .build());
+        }
+        screeningJdbcRepository.insertScreenings(screenings);
+        screenings.forEach(screening -> eventPublisher.publishEvent(new SalesEvent(
+                SalesEvent.Type.SCREENING_SCHEDULED, screening.getMovie().getId(), screening.getScreeningTime(),
+                screening.getTotalSeats(), 0)));
+
+        List<ScreeningJdbcRepository.SeatGrid> grids = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            grids.add(new ScreeningJdbcRepository.SeatGrid(screenings.get(i).getId(), seatRows.get(i)));
+        }
+        screeningJdbcRepository.insertSeats(grids);
+        return screenings;
     }
 
     @Async
@@ -64,47 +135,79 @@ public class ScreeningService {
     public CompletableFuture<ScreeningResponseDTO> getScreeningById(Long id) {
         Screening screening = screeningRepository.findByIdWithSeats(id)
                 .orElseThrow(() -> new RuntimeException("Screening not found"));
-        return CompletableFuture.completedFuture(convertToDTO(screening));
+        ScreeningResponseDTO dto = convertToDTO(screening);
+        // Derived from the loaded seats; the stored column is only a periodically refreshed snapshot
+        dto.setAvailableSeats((int) screening.getSeats().stream()
+                .filter(seat -> seat.getStatus() == SeatStatus.AVAILABLE)
+                .count());
+        return CompletableFuture.completedFuture(dto);
     }
 
+    // Not transactional: cache hits never need a connection, misses load through the repositories
     @Async
-    @Transactional(readOnly = true)
     public CompletableFuture<List<SeatResponseDTO>> getAvailableSeats(Long screeningId) {
-        Screening screening = screeningRepository.findByIdWithSeats(screeningId)
-                .orElseThrow(() -> new RuntimeException("Screening not found"));
-
-        List<SeatResponseDTO> seats = screening.getSeats().stream()
-                .map(this::convertToSeatDTO)
-                .collect(Collectors.toList());
-
-        return CompletableFuture.completedFuture(seats);
+        return CompletableFuture.completedFuture(seatMapCache.getSeats(screeningId));
     }
 
     @Async
     @Transactional(readOnly = true)
-    public CompletableFuture<List<ScreeningResponseDTO>> getScreeningsByMovie(Long movieId) {
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new RuntimeException("Movie not found"));
+    public CompletableFuture<Page<ScreeningResponseDTO>> getScreeningsByMovie(Long movieId,
+                                                                             LocalDateTime from,
+                                                                             LocalDateTime to,
+                                                                             Pageable pageable) {
+        Page<ScreeningSummaryView> summaries = screeningRepository.findSummariesByMovieId(movieId, from, to, pageable);
+        if (summaries.isEmpty() && !movieRepository.existsById(movieId)) {
+            throw new RuntimeException("Movie not found");
+        }
+        return CompletableFuture.completedFuture(summaries.map(this::convertToDTO));
+    }
+
+    private void validate(ScreeningRequestDTO request) {
+        if (request.getMovieId() == null || request.getScreeningTime() == null) {
+            throw new RuntimeException("Movie and screening time are required");
+        }
+        if (request.getLayoutId() != null) {
+            return;
+        }
+        if (request.getRowCount() == null || request.getSeatsPerRow() == null
+                || request.getRowCount() < 1 || request.getSeatsPerRow() < 1) {
+            throw new RuntimeException("Row count and seats per row must be positive");
+        }
+        if (request.getRowCount() > SeatLayoutService.MAX_ROWS
+                || request.getSeatsPerRow() > SeatLayoutService.MAX_ROW_WIDTH) {
+            throw new RuntimeException("A screening cannot have more than " + SeatLayoutService.MAX_ROWS
+                    + " rows of " + SeatLayoutService.MAX_ROW_WIDTH + " seats");
+        }
+    }
 
-        List<ScreeningResponseDTO> screenings = movie.getScreenings().stream()
-                .map(screening -> {
-                    // Fetch screening with seats
-                    Screening fullScreening = screeningRepository.findByIdWithSeats(screening.getId())
-                            .orElseThrow(() -> new RuntimeException("Screening not found"));
-                    
-                    // Calculate available seats
-                    long availableSeats = fullScreening.getSeats().stream()
-                            .filter(seat -> seat.getStatus() == SeatStatus.AVAILABLE)
-                            .count();
-                    
-                    // Update available seats
-                    fullScreening.setAvailableSeats((int) availableSeats);
-                    
-                    return convertToDTO(fullScreening);
-                })
-                .collect(Collectors.toList());
+    private List<ScreeningJdbcRepository.RowSeats> seatRows(ScreeningRequestDTO request, SeatLayout layout) {
+        List<ScreeningJdbcRepository.RowSeats> rows = new ArrayList<>();
+        if (layout != null) {
+            for (SeatLayoutService.Row row : seatLayoutService.getGrid(layout).rows()) {
+                rows.add(new ScreeningJdbcRepository.RowSeats(row.label(), row.seats().size()));
+            }
+        } else {
+            for (int row = 0; row < request.getRowCount(); row++) {
+                rows.add(new ScreeningJdbcRepository.RowSeats(SeatLayoutService.rowLabel(row), request.getSeatsPerRow()));
+            }
+        }
+        return rows;
+    }
 
-        return CompletableFuture.completedFuture(screenings);
+    private ScreeningResponseDTO convertToDTO(ScreeningSummaryView summary) {
+        return ScreeningResponseDTO.builder()
+                .id(summary.getId())
+                .movie(MovieResponseDTO.builder()
+                        .id(summary.getMovieId())
+                        .title(summary.getMovieTitle())
+                        .genre(summary.getMovieGenre())
+                        .description(summary.getMovieDescription())
+                        .ticketPrice(summary.getMovieTicketPrice())
+                        .build())
+                .screeningTime(summary.getScreeningTime())
+                .totalSeats(summary.getTotalSeats())
+                .availableSeats(summary.getAvailableSeats().intValue())
+                .build();
     }
 
     private ScreeningResponseDTO convertToDTO(Screening screening) {
@@ -116,13 +219,4 @@ public class ScreeningService {
                 .availableSeats(screening.getAvailableSeats())
                 .build();
     }
-
-    private SeatResponseDTO convertToSeatDTO(Seat seat) {
-        return SeatResponseDTO.builder()
-                .id(seat.getId())
-                .seatRow(seat.getSeatRow())
-                .seatNumber(seat.getSeatNumber())
-                .status(seat.getStatus())
-                .build();
-    }
 } 
\ No newline at end of file
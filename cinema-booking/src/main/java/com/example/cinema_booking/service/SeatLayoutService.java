@@ -0,0 +1,137 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.request.SeatLayoutRequestDTO;
+import com.example.cinema_booking.dto.response.SeatLayoutResponseDTO;
+import com.example.cinema_booking.entity.SeatLayout;
+import com.example.cinema_booking.enums.SeatType;
+import com.example.cinema_booking.repository.SeatLayoutRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class SeatLayoutService {
+    public static final int MAX_ROWS = 200;
+    public static final int MAX_ROW_WIDTH = 200;
+    private static final char GAP = '.';
+
+    private final SeatLayoutRepository seatLayoutRepository;
+
+    // Layouts never change after creation, so parsed grids can be kept for good
+    private final Map<Long, Grid> grids = new ConcurrentHashMap<>();
+
+    @Async
+    @Transactional
+    public CompletableFuture<SeatLayoutResponseDTO> createLayout(SeatLayoutRequestDTO request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new RuntimeException("Layout name is required");
+        }
+        if (seatLayoutRepository.existsByName(request.getName())) {
+            throw new RuntimeException("A layout named " + request.getName() + " already exists");
+        }
+        Grid grid = parse(request.getRows());
+
+        SeatLayout layout = seatLayoutRepository.save(SeatLayout.builder()
+                .name(request.getName())
+                .rowCount(grid.rows().size())
+                .rowWidth(request.getRows().stream().mapToInt(String::length).max().orElse(0))
+                .totalSeats(grid.totalSeats())
+                .grid(String.join("\n", request.getRows()))
+                .build());
+        return CompletableFuture.completedFuture(SeatLayoutResponseDTO.fromEntity(layout));
+    }
+
+    @Async
+    @Transactional(readOnly = true)
+    public CompletableFuture<List<SeatLayoutResponseDTO>> getAllLayouts() {
+        return CompletableFuture.completedFuture(seatLayoutRepository.findAll().stream()
+                .map(SeatLayoutResponseDTO::fromEntity)
+                .toList());
+    }
+
+    @Async
+    @Transactional(readOnly = true)
+    public CompletableFuture<SeatLayoutResponseDTO> getLayoutById(Long id) {
+        SeatLayout layout = seatLayoutRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Layout not found with id: " + id));
+        return CompletableFuture.completedFuture(SeatLayoutResponseDTO.fromEntity(layout));
+    }
+
+    public Grid getGrid(Long layoutId) {
+        return grids.computeIfAbsent(layoutId, id -> seatLayoutRepository.findById(id)
+                .map(layout -> parse(List.of(layout.getGrid().split("\n"))))
+                .orElseThrow(() -> new RuntimeException("Layout not found with id: " + id)));
+    }
+
+    public Grid getGrid(SeatLayout layout) {
+        return grids.computeIfAbsent(layout.getId(), id -> parse(List.of(layout.getGrid().split("\n"))));
+    }
+
+    /** Spreadsheet-style row labels: A..Z, then AA..AZ, BA.. and so on. */
+    public static String rowLabel(int rowIndex) {
+        StringBuilder label = new StringBuilder();
+        for (int n = rowIndex + 1; n > 0; n = (n - 1) / 26) {
+            label.append((char) ('A' + (n - 1) % 26));
+        }
+        return label.reverse().toString();
+    }
+
+    static Grid parse(List<String> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new RuntimeException("A layout needs at least one row");
+        }
+        if (rows.size() > MAX_ROWS) {
+            throw new RuntimeException("A layout cannot have more than " + MAX_ROWS + " rows");
+        }
+        List<Row> parsed = new ArrayList<>(rows.size());
+        int totalSeats = 0;
+        for (int r = 0; r < rows.size(); r++) {
+            String row = rows.get(r);
+            if (row == null || row.length() > MAX_ROW_WIDTH) {
+                throw new RuntimeException("Row " + (r + 1) + " must have at most " + MAX_ROW_WIDTH + " positions");
+            }
+            // Seats are numbered 1..n from the left; gaps take no number
+            List<SeatType> seats = new ArrayList<>(row.length());
+            List<Integer> positions = new ArrayList<>(row.length());
+            for (int position = 0; position < row.length(); position++) {
+                char code = row.charAt(position);
+                if (code == GAP) {
+                    continue;
+                }
+                SeatType type = SeatType.fromCode(code);
+                if (type == null) {
+                    throw new RuntimeException("Unknown seat code '" + code + "' in row " + (r + 1));
+                }
+                seats.add(type);
+                positions.add(position);
+            }
+            parsed.add(new Row(rowLabel(r), List.copyOf(seats), List.copyOf(positions)));
+            totalSeats += seats.size();
+        }
+        if (totalSeats == 0) {
+            throw new RuntimeException("A layout needs at least one seat");
+        }
+        return new Grid(List.copyOf(parsed), totalSeats);
+    }
+
+    // positions holds each seat's column in the row string, so aisles show up as missing columns
+    public record Row(String label, List<SeatType> seats, List<Integer> positions) {
+    }
+
+    public record Grid(List<Row> rows, int totalSeats) {
+        public Map<String, Row> byLabel() {
+            Map<String, Row> byLabel = new HashMap<>(rows.size() * 2);
+            rows.forEach(row -> byLabel.put(row.label(), row));
+            return byLabel;
+        }
+    }
+}
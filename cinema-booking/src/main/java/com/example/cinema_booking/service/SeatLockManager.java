@@ -0,0 +1,155 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.response.LockStripeStatsDTO;
+import com.example.cinema_booking.exception.SeatLockException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped lock table keyed by screening id. Bookings for different screenings
+ * land on different stripes (unless they collide on the hash) and no longer
+ * queue behind each other, while the number of locks stays bounded no matter
+ * how many screenings are active.
+ */
+@Component
+public class SeatLockManager {
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long lockTimeoutMillis;
+    private final Timer waitTimer;
+    private final Timer holdTimer;
+    private final Counter timeoutCounter;
+
+    public SeatLockManager(@Value("${booking.lock.stripes:64}") int stripeCount,
+                           @Value("${booking.lock.timeout-ms:5000}") long lockTimeoutMillis,
+                           MeterRegistry meterRegistry) {
+        // Round up to a power of two so the stripe index is a simple mask
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(i);
+        }
+        this.stripeMask = size - 1;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.waitTimer = Timer.builder("booking.lock.wait")
+                .description("Time spent waiting for a contended screening lock")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.holdTimer = Timer.builder("booking.lock.hold")
+                .description("Time a screening lock is held")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("booking.lock.timeouts")
+                .description("Screening lock acquisitions that timed out")
+                .register(meterRegistry);
+    }
+
+    public <T> T withScreeningLock(Long screeningId, String timeoutMessage, Supplier<T> action) {
+        Stripe stripe = stripeFor(screeningId);
+        stripe.acquire(screeningId, lockTimeoutMillis, timeoutMessage);
+        long acquiredAt = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            stripe.lock.unlock();
+            holdTimer.record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void withScreeningLock(Long screeningId, String timeoutMessage, Runnable action) {
+        withScreeningLock(screeningId, timeoutMessage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public List<LockStripeStatsDTO> getStripeStats() {
+        List<LockStripeStatsDTO> stats = new ArrayList<>(stripes.length);
+        for (Stripe stripe : stripes) {
+            stats.add(stripe.snapshot());
+        }
+        // Hottest stripes first
+        stats.sort(Comparator.comparingLong(LockStripeStatsDTO::getTotalWaitMillis).reversed());
+        return stats;
+    }
+
+    private Stripe stripeFor(Long screeningId) {
+        long h = screeningId == null ? 0 : screeningId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & stripeMask];
+    }
+
+    private final class Stripe {
+        final int index;
+        final ReentrantLock lock = new ReentrantLock();
+        final AtomicLong acquisitions = new AtomicLong();
+        final AtomicLong contended = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong totalWaitNanos = new AtomicLong();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        volatile Long lastScreeningId;
+
+        Stripe(int index) {
+            this.index = index;
+        }
+
+        void acquire(Long screeningId, long timeoutMillis, String timeoutMessage) {
+            lastScreeningId = screeningId;
+            // Fast path: uncontended acquisition costs no timing calls
+            if (lock.tryLock()) {
+                acquisitions.incrementAndGet();
+                return;
+            }
+
+            contended.incrementAndGet();
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SeatLockException("Interrupted while waiting for screening lock");
+            }
+
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            waitTimer.record(waited, TimeUnit.NANOSECONDS);
+
+            if (!acquired) {
+                timeouts.incrementAndGet();
+                timeoutCounter.increment();
+                throw new SeatLockException(timeoutMessage);
+            }
+            acquisitions.incrementAndGet();
+        }
+
+        LockStripeStatsDTO snapshot() {
+            return LockStripeStatsDTO.builder()
+                    .stripe(index)
+                    .acquisitions(acquisitions.get())
+                    .contendedAcquisitions(contended.get())
+                    .timeouts(timeouts.get())
+                    .totalWaitMillis(TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()))
+                    .maxWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()))
+                    .queueLength(lock.getQueueLength())
+                    .locked(lock.isLocked())
+                    .lastScreeningId(lastScreeningId)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.response.SeatResponseDTO;
+import com.example.cinema_booking.enums.SeatStatus;
+import com.example.cinema_booking.enums.SeatType;
+import com.example.cinema_booking.exception.ResourceNotFoundException;
+import com.example.cinema_booking.repository.ScreeningRepository;
+import com.example.cinema_booking.repository.ScreeningSeatMapView;
+import com.example.cinema_booking.repository.SeatRepository;
+import com.example.cinema_booking.repository.SeatView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-screening seat map kept in compact arrays. Seat geometry (id, row, number)
+ * is immutable once loaded and the status of each seat is one byte, so a
+ * 300-seat hall costs a few kilobytes. The booking write paths push their
+ * transitions in here, which lets seat-map polling skip the database entirely
+ * until the entry's TTL forces a reload.
+ *
+ * Each map also keeps an occupancy bitmap, one long word per 64 columns of a
+ * row with a bit set for every AVAILABLE seat, which the seat recommendation
+ * scans without touching the per-seat arrays.
+ *
+ * Misses are single-flight: concurrent requests for one screening wait on the
+ * same load. A status change or invalidation that lands while a load is in
+ * flight marks it stale, and the stale result is handed to its waiters but not
+ * cached, since it may predate the change.
+ */
+@Component
+public class SeatMapCache {
+    private static final SeatStatus[] STATUSES = SeatStatus.values();
+    private static final SeatType[] SEAT_TYPES = SeatType.values();
+
+    private final SeatRepository seatRepository;
+    private final ScreeningRepository screeningRepository;
+    private final SeatLayoutService seatLayoutService;
+    private final int maxScreenings;
+    private final long ttlNanos;
+    private final Duration pastScreeningGrace;
+    private final Timer loadTimer;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Map<Long, SeatMap> seatMaps;
+    private final Map<Long, Load> loads = new ConcurrentHashMap<>();
+
+    public SeatMapCache(SeatRepository seatRepository,
+                        ScreeningRepository screeningRepository,
+                        SeatLayoutService seatLayoutService,
+                        @Value("${booking.seatmap.cache.max-screenings:500}") int maxScreenings,
+                        @Value("${booking.seatmap.cache.ttl-seconds:30}") long ttlSeconds,
+                        @Value("${booking.seatmap.cache.past-grace-minutes:30}") long pastGraceMinutes,
+                        MeterRegistry meterRegistry) {
+        this.seatRepository = seatRepository;
+        this.screeningRepository = screeningRepository;
+        this.seatLayoutService = seatLayoutService;
+        this.maxScreenings = maxScreenings;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.pastScreeningGrace = Duration.ofMinutes(pastGraceMinutes);
+        this.loadTimer = Timer.builder("booking.seatmap.load")
+                .description("Seat map database query latency on a cache miss")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.hits = Counter.builder("booking.seatmap.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("booking.seatmap.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("booking.seatmap.cache.size", this, SeatMapCache::size)
+                .description("Screenings with a cached seat map")
+                .register(meterRegistry);
+        // Access-ordered map gives LRU eviction once the size bound is reached
+        this.seatMaps = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SeatMap> eldest) {
+                return size() > SeatMapCache.this.maxScreenings;
+            }
+        };
+    }
+
+    public List<SeatResponseDTO> getSeats(Long screeningId) {
+        return getSeatMap(screeningId).toSeatDTOs();
+    }
+
+    public SeatMap getSeatMap(Long screeningId) {
+        SeatMap seatMap;
+        synchronized (seatMaps) {
+            seatMap = seatMaps.get(screeningId);
+        }
+        if (seatMap != null && !seatMap.isStale(ttlNanos)) {
+            hits.increment();
+            return seatMap;
+        }
+
+        misses.increment();
+        Load load = new Load();
+        Load running = loads.putIfAbsent(screeningId, load);
+        if (running != null) {
+            return running.await();
+        }
+        try {
+            seatMap = loadTimer.record(() -> load(screeningId));
+        } catch (RuntimeException e) {
+            loads.remove(screeningId, load);
+            load.future.completeExceptionally(e);
+            throw e;
+        }
+        // Checked under the same lock updateStatus marks loads stale with, so no change slips in between
+        synchronized (seatMaps) {
+            if (!load.stale && !isPast(seatMap.screeningTime)) {
+                seatMaps.put(screeningId, seatMap);
+            }
+            loads.remove(screeningId, load);
+        }
+        load.future.complete(seatMap);
+        return seatMap;
+    }
+
+    public void updateStatus(Long screeningId, Collection<Long> seatIds, SeatStatus status) {
+        SeatMap seatMap;
+        synchronized (seatMaps) {
+            seatMap = seatMaps.get(screeningId);
+            markStale(screeningId);
+        }
+        if (seatMap != null) {
+            seatMap.updateStatus(seatIds, status);
+        }
+    }
+
+    public void invalidate(Long screeningId) {
+        synchronized (seatMaps) {
+            seatMaps.remove(screeningId);
+            markStale(screeningId);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> screeningIds) {
+        synchronized (seatMaps) {
+            for (Long screeningId : screeningIds) {
+                seatMaps.remove(screeningId);
+                markStale(screeningId);
+            }
+        }
+    }
+
+    private void markStale(Long screeningId) {
+        Load load = loads.get(screeningId);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    public int size() {
+        synchronized (seatMaps) {
+            return seatMaps.size();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.seatmap.cache.eviction-interval-ms:60000}")
+    public void evictPastScreenings() {
+        synchronized (seatMaps) {
+            seatMaps.values().removeIf(seatMap -> isPast(seatMap.screeningTime));
+        }
+    }
+
+    private boolean isPast(LocalDateTime screeningTime) {
+        return screeningTime != null && screeningTime.plus(pastScreeningGrace).isBefore(LocalDateTime.now());
+    }
+
+    private SeatMap load(Long screeningId) {
+        ScreeningSeatMapView info = screeningRepository.findSeatMapInfoById(screeningId)
+                .orElseThrow(() -> new ResourceNotFoundException("Screening not found"));
+        SeatLayoutService.Grid grid = info.getLayoutId() == null
+                ? null
+                : seatLayoutService.getGrid(info.getLayoutId());
+        return new SeatMap(screeningId, info.getScreeningTime(), seatRepository.findByScreeningIdOrderById(screeningId), grid);
+    }
+
+    // One in-flight load per screening, shared by every request that misses meanwhile
+    private static final class Load {
+        final CompletableFuture<SeatMap> future = new CompletableFuture<>();
+        volatile boolean stale;
+
+        SeatMap await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    public static final class SeatMap {
+        final Long screeningId;
+        final LocalDateTime screeningTime;
+        final long loadedAt = System.nanoTime();
+
+        // Parallel arrays indexed by seat position (seats ordered by id)
+        final long[] seatIds;
+        final String[] rowLabels;
+        final short[] rowIndex;
+        final String[] seatNumbers;
+        final byte[] status;
+        // Seat type ordinals from the layout template, null for screenings without one
+        final byte[] seatTypes;
+
+        // Physical column of each seat (its position in the layout row, or number - 1), -1 if unknown
+        final short[] column;
+        // Row ranks from front to back, by label order: rowIndex -> rank and rank -> rowIndex
+        final short[] rowRank;
+        final short[] rowAtRank;
+        // Per rank: seat position at each column (-1 for aisles) and the bitmap of AVAILABLE seats
+        final int[][] seatAtColumn;
+        final long[][] freeBits;
+        final int hallWidth;
+
+        private List<SeatResponseDTO> dtoSnapshot;
+
+        SeatMap(Long screeningId, LocalDateTime screeningTime, List<SeatView> seats, SeatLayoutService.Grid grid) {
+            this.screeningId = screeningId;
+            this.screeningTime = screeningTime;
+            int size = seats.size();
+            this.seatIds = new long[size];
+            this.rowIndex = new short[size];
+            this.seatNumbers = new String[size];
+            this.status = new byte[size];
+            this.seatTypes = grid == null ? null : new byte[size];
+            Map<String, SeatLayoutService.Row> layoutRows = grid == null ? null : grid.byLabel();
+
+            Map<String, Short> rows = new HashMap<>();
+            List<String> labels = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                SeatView seat = seats.get(i);
+                seatIds[i] = seat.getId();
+                rowIndex[i] = rows.computeIfAbsent(seat.getSeatRow(), label -> {
+                    labels.add(label);
+                    return (short) (labels.size() - 1);
+                });
+                seatNumbers[i] = seat.getSeatNumber();
+                status[i] = (byte) seat.getStatus().ordinal();
+                if (seatTypes != null) {
+                    seatTypes[i] = (byte) typeOf(layoutRows, seat).ordinal();
+                }
+            }
+            this.rowLabels = labels.toArray(new String[0]);
+
+            int rowCount = rowLabels.length;
+            this.rowAtRank = new short[rowCount];
+            this.rowRank = new short[rowCount];
+            List<Short> byLabel = new ArrayList<>(rowCount);
+            for (short row = 0; row < rowCount; row++) {
+                byLabel.add(row);
+            }
+            // Spreadsheet-style labels sort by length first: A..Z, then AA..
+            byLabel.sort((a, b) -> rowLabels[a].length() != rowLabels[b].length()
+                    ? Integer.compare(rowLabels[a].length(), rowLabels[b].length())
+                    : rowLabels[a].compareTo(rowLabels[b]));
+            for (short rank = 0; rank < rowCount; rank++) {
+                rowAtRank[rank] = byLabel.get(rank);
+                rowRank[byLabel.get(rank)] = rank;
+            }
+
+            this.column = new short[size];
+            int[] rowWidth = new int[rowCount];
+            for (int i = 0; i < size; i++) {
+                column[i] = (short) columnOf(layoutRows, rowLabels[rowIndex[i]], seatNumbers[i]);
+                rowWidth[rowRank[rowIndex[i]]] = Math.max(rowWidth[rowRank[rowIndex[i]]], column[i] + 1);
+            }
+            this.seatAtColumn = new int[rowCount][];
+            this.freeBits = new long[rowCount][];
+            int width = 0;
+            for (int rank = 0; rank < rowCount; rank++) {
+                seatAtColumn[rank] = new int[rowWidth[rank]];
+                Arrays.fill(seatAtColumn[rank], -1);
+                freeBits[rank] = new long[(rowWidth[rank] + 63) >>> 6];
+                width = Math.max(width, rowWidth[rank]);
+            }
+            this.hallWidth = width;
+            for (int i = 0; i < size; i++) {
+                int[] seatsInRow = seatAtColumn[rowRank[rowIndex[i]]];
+                if (column[i] >= 0 && seatsInRow[column[i]] < 0) {
+                    seatsInRow[column[i]] = i;
+                    setFree(i, status[i] == SeatStatus.AVAILABLE.ordinal());
+                } else {
+                    // Duplicate or unparseable seat numbers stay out of the bitmap
+                    column[i] = -1;
+                }
+            }
+        }
+
+        private static int columnOf(Map<String, SeatLayoutService.Row> layoutRows, String rowLabel, String seatNumber) {
+            int number;
+            try {
+                number = Integer.parseInt(seatNumber);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            if (number < 1 || number > SeatLayoutService.MAX_ROW_WIDTH) {
+                return -1;
+            }
+            SeatLayoutService.Row row = layoutRows == null ? null : layoutRows.get(rowLabel);
+            return row != null && number <= row.positions().size()
+                    ? row.positions().get(number - 1)
+                    : number - 1;
+        }
+
+        private void setFree(int index, boolean free) {
+            int col = column[index];
+            if (col < 0) {
+                return;
+            }
+            long[] words = freeBits[rowRank[rowIndex[index]]];
+            // Shifts take the count mod 64, so this is the bit within the column's word
+            if (free) {
+                words[col >>> 6] |= 1L << col;
+            } else {
+                words[col >>> 6] &= ~(1L << col);
+            }
+        }
+
+        // A consistent copy of the occupancy bitmap; a few words per row
+        synchronized long[][] copyFreeBits() {
+            long[][] copy = new long[freeBits.length][];
+            for (int rank = 0; rank < freeBits.length; rank++) {
+                copy[rank] = freeBits[rank].clone();
+            }
+            return copy;
+        }
+
+        private static SeatType typeOf(Map<String, SeatLayoutService.Row> layoutRows, SeatView seat) {
+            SeatLayoutService.Row row = layoutRows.get(seat.getSeatRow());
+            int index = Integer.parseInt(seat.getSeatNumber()) - 1;
+            return row != null && index >= 0 && index < row.seats().size()
+                    ? row.seats().get(index)
+                    : SeatType.STANDARD;
+        }
+
+        boolean isStale(long ttlNanos) {
+            return System.nanoTime() - loadedAt > ttlNanos;
+        }
+
+        public Long getScreeningId() {
+            return screeningId;
+        }
+
+        public int size() {
+            return seatIds.length;
+        }
+
+        synchronized void updateStatus(Collection<Long> ids, SeatStatus newStatus) {
+            for (Long id : ids) {
+                int index = Arrays.binarySearch(seatIds, id);
+                if (index >= 0 && status[index] != newStatus.ordinal()) {
+                    status[index] = (byte) newStatus.ordinal();
+                    setFree(index, newStatus == SeatStatus.AVAILABLE);
+                    dtoSnapshot = null;
+                }
+            }
+        }
+
+        // The DTO list is rebuilt only after a status change, so repeated polls share one immutable list
+        synchronized List<SeatResponseDTO> toSeatDTOs() {
+            if (dtoSnapshot == null) {
+                List<SeatResponseDTO> seats = new ArrayList<>(seatIds.length);
+                for (int i = 0; i < seatIds.length; i++) {
+                    seats.add(SeatResponseDTO.builder()
+                            .id(seatIds[i])
+                            .seatRow(rowLabels[rowIndex[i]])
+                            .seatNumber(seatNumbers[i])
+                            .status(STATUSES[status[i]])
+                            .seatType(seatTypes == null ? null : SEAT_TYPES[seatTypes[i]])
+                            .build());
+                }
+                dtoSnapshot = Collections.unmodifiableList(seats);
+            }
+            return dtoSnapshot;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.response.SeatDeltaDTO;
+import com.example.cinema_booking.dto.response.SeatDeltaFrameDTO;
+import com.example.cinema_booking.enums.SeatStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes seat status changes to subscribed clients over Server-Sent Events.
+ *
+ * Changes are coalesced per screening (last status per seat wins) and flushed
+ * as one frame every few hundred milliseconds. Each subscriber has a small
+ * bounded queue drained by its own virtual thread; a client that cannot keep up
+ * has its backlog dropped and receives a single "resync" event carrying the
+ * full seat map instead, so a slow connection never holds up the others.
+ */
+@Slf4j
+@Service
+public class SeatMapStreamService {
+    private final SeatMapCache seatMapCache;
+    private final long emitterTimeoutMillis;
+    private final int subscriberQueueCapacity;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // Each screening's map is only touched inside compute on its key, or after flush removed it,
+    // so a publish either lands in the map flush takes or starts a new one
+    private final Map<Long, Map<Long, SeatStatus>> pendingDeltas = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senderExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("SeatStream-", 0).factory());
+
+    public SeatMapStreamService(SeatMapCache seatMapCache,
+                                @Value("${booking.seatmap.stream.timeout-ms:1800000}") long emitterTimeoutMillis,
+                                @Value("${booking.seatmap.stream.queue-capacity:32}") int subscriberQueueCapacity,
+                                MeterRegistry meterRegistry) {
+        this.seatMapCache = seatMapCache;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        Gauge.builder("booking.seatmap.subscribers", this, SeatMapStreamService::getSubscriberCount)
+                .description("Open seat-map event streams")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long screeningId) {
+        // Fails fast for unknown screenings and warms the cache for the initial snapshot
+        seatMapCache.getSeatMap(screeningId);
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(screeningId, emitter);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.computeIfAbsent(screeningId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        // The first event is the full seat map; everything after it is a delta
+        subscriber.requestResync();
+        return emitter;
+    }
+
+    public void publish(Long screeningId, Collection<Long> seatIds, SeatStatus status) {
+        if (!subscribers.containsKey(screeningId)) {
+            return;
+        }
+        pendingDeltas.compute(screeningId, (id, pending) -> {
+            Map<Long, SeatStatus> deltas = pending == null ? new HashMap<>() : pending;
+            seatIds.forEach(seatId -> deltas.put(seatId, status));
+            return deltas;
+        });
+    }
+
+    // Used when the exact seats that changed are unknown, e.g. after a bulk expiry
+    public void resync(Collection<Long> screeningIds) {
+        for (Long screeningId : screeningIds) {
+            Set<Subscriber> targets = subscribers.get(screeningId);
+            if (targets != null) {
+                targets.forEach(Subscriber::requestResync);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.seatmap.stream.flush-ms:250}")
+    public void flush() {
+        for (Long screeningId : pendingDeltas.keySet()) {
+            Map<Long, SeatStatus> pending = pendingDeltas.remove(screeningId);
+            if (pending == null || pending.isEmpty()) {
+                continue;
+            }
+            Set<Subscriber> targets = subscribers.get(screeningId);
+            if (targets == null || targets.isEmpty()) {
+                continue;
+            }
+
+            List<SeatDeltaDTO> deltas = new ArrayList<>(pending.size());
+            pending.forEach((seatId, status) -> deltas.add(new SeatDeltaDTO(seatId, status)));
+            SeatDeltaFrameDTO frame = SeatDeltaFrameDTO.builder()
+                    .screeningId(screeningId)
+                    .sequence(sequence.incrementAndGet())
+                    .seats(deltas)
+                    .build();
+            targets.forEach(subscriber -> subscriber.offer(frame));
+        }
+    }
+
+    // Keeps idle connections open through proxies and flushes out clients that went away
+    @Scheduled(fixedDelayString = "${booking.seatmap.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        senderExecutor.shutdownNow();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.screeningId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber {
+        final Long screeningId;
+        final SseEmitter emitter;
+        final BlockingQueue<SeatDeltaFrameDTO> queue = new ArrayBlockingQueue<>(subscriberQueueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean resync = new AtomicBoolean();
+        final AtomicBoolean heartbeat = new AtomicBoolean();
+
+        Subscriber(Long screeningId, SseEmitter emitter) {
+            this.screeningId = screeningId;
+            this.emitter = emitter;
+        }
+
+        void offer(SeatDeltaFrameDTO frame) {
+            if (!queue.offer(frame)) {
+                // Too far behind: drop the backlog and send a fresh snapshot instead
+                queue.clear();
+                resync.set(true);
+            }
+            scheduleDrain();
+        }
+
+        void requestResync() {
+            resync.set(true);
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            heartbeat.set(true);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senderExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    if (resync.getAndSet(false)) {
+                        queue.clear();
+                        emitter.send(SseEmitter.event()
+                                .name("snapshot")
+                                .data(seatMapCache.getSeats(screeningId), MediaType.APPLICATION_JSON));
+                        continue;
+                    }
+                    SeatDeltaFrameDTO frame = queue.poll();
+                    if (frame == null) {
+                        if (heartbeat.getAndSet(false)) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        }
+                        break;
+                    }
+                    emitter.send(SseEmitter.event()
+                            .name("seats")
+                            .id(String.valueOf(frame.getSequence()))
+                            .data(frame, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping seat stream subscriber for screening {}: {}", screeningId, e.getMessage());
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to push seat updates for screening {}", screeningId, e);
+            } finally {
+                draining.set(false);
+            }
+            // Work may have arrived between the last poll and releasing the flag
+            if (!queue.isEmpty() || resync.get()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.constants.BookingConstants;
+import com.example.cinema_booking.dto.response.SeatBlockDTO;
+import com.example.cinema_booking.exception.BookingException;
+import com.example.cinema_booking.exception.ConcurrencyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Best-available search: finds blocks of N adjacent AVAILABLE seats in one row
+ * and ranks them by distance from the centre of the hall. Runs are found on the
+ * seat map's occupancy bitmap by AND-ing each row with shifted copies of itself
+ * (log2(N) word operations per row), so a search costs microseconds and never
+ * hits the database on a cache hit. The map can lag other instances by its TTL,
+ * so reserving re-checks every seat with a conditional update.
+ */
+@Slf4j
+@Service
+public class SeatRecommendationService {
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final SeatMapCache seatMapCache;
+    private final BookingService bookingService;
+    private final int defaultLimit;
+    private final double rowWeight;
+    private final double orphanPenalty;
+
+    public SeatRecommendationService(SeatMapCache seatMapCache,
+                                     BookingService bookingService,
+                                     @Value("${booking.recommendation.default-limit:5}") int defaultLimit,
+                                     @Value("${booking.recommendation.row-weight:1.5}") double rowWeight,
+                                     @Value("${booking.recommendation.orphan-penalty:3.0}") double orphanPenalty) {
+        this.seatMapCache = seatMapCache;
+        this.bookingService = bookingService;
+        this.defaultLimit = defaultLimit;
+        this.rowWeight = rowWeight;
+        this.orphanPenalty = orphanPenalty;
+    }
+
+    // Not transactional: cache hits never need a connection, misses load through the repositories
+    @Async
+    public CompletableFuture<List<SeatBlockDTO>> getRecommendations(Long screeningId, int seats, Integer limit) {
+        return CompletableFuture.completedFuture(recommend(screeningId, seats, limit == null ? defaultLimit : limit));
+    }
+
+    /** Reserves the best block, moving on to a fresh recommendation if it was taken meanwhile. */
+    public CompletableFuture<SeatBlockDTO> reserveBest(Long screeningId, int seats, RateLimiter.Holder holder) {
+        return reserveBest(screeningId, seats, holder, 1);
+    }
+
+    private CompletableFuture<SeatBlockDTO> reserveBest(Long screeningId, int seats, RateLimiter.Holder holder, int attempt) {
+        List<SeatBlockDTO> blocks = recommend(screeningId, seats, 1);
+        if (blocks.isEmpty()) {
+            throw new BookingException("No block of " + seats + " adjacent seats is available");
+        }
+        SeatBlockDTO best = blocks.get(0);
+        return bookingService.reserveSeats(screeningId, best.getSeatIds(), holder)
+                .thenApply(reservedUntil -> best.toBuilder().reservedUntil(reservedUntil).build())
+                .exceptionallyCompose(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (!(cause instanceof ConcurrencyException) || attempt >= MAX_RESERVE_ATTEMPTS) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    // The cached map was behind the database; reload it before choosing again
+                    log.debug("Recommended block {} in screening {} was taken, retrying", best.getSeatIds(), screeningId);
+                    seatMapCache.invalidate(screeningId);
+                    return reserveBest(screeningId, seats, holder, attempt + 1);
+                });
+    }
+
+    List<SeatBlockDTO> recommend(Long screeningId, int seats, int limit) {
+        if (seats < 1 || seats > BookingConstants.MAX_SEATS_PER_BOOKING) {
+            throw new BookingException("Between 1 and " + BookingConstants.MAX_SEATS_PER_BOOKING
+                    + " seats can be requested");
+        }
+        if (limit < 1) {
+            throw new BookingException("Limit must be at least 1");
+        }
+        SeatMapCache.SeatMap seatMap = seatMapCache.getSeatMap(screeningId);
+        long[][] free = seatMap.copyFreeBits();
+
+        double centreColumn = (seatMap.hallWidth - 1) / 2.0;
+        double centreRow = (free.length - 1) / 2.0;
+        List<Candidate> candidates = new ArrayList<>();
+        for (int rank = 0; rank < free.length; rank++) {
+            long[] starts = runStarts(free[rank], seats);
+            for (int word = 0; word < starts.length; word++) {
+                for (long bits = starts[word]; bits != 0; bits &= bits - 1) {
+                    int start = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    double score = Math.abs(start + (seats - 1) / 2.0 - centreColumn)
+                            + rowWeight * Math.abs(rank - centreRow);
+                    // Blocks that strand a single free seat next to them are hard to sell later
+                    if (isOrphaned(free[rank], start - 1, -1)) {
+                        score += orphanPenalty;
+                    }
+                    if (isOrphaned(free[rank], start + seats, 1)) {
+                        score += orphanPenalty;
+                    }
+                    candidates.add(new Candidate(rank, start, score));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::score));
+
+        // Alternatives do not overlap, so each one is a real choice
+        List<Candidate> chosen = new ArrayList<>(limit);
+        for (Candidate candidate : candidates) {
+            if (chosen.size() == limit) {
+                break;
+            }
+            if (chosen.stream().noneMatch(other -> other.overlaps(candidate, seats))) {
+                chosen.add(candidate);
+            }
+        }
+        return chosen.stream().map(candidate -> toBlock(seatMap, candidate, seats)).toList();
+    }
+
+    /**
+     * Bit i of the result is set when columns i..i+length-1 are all free.
+     * Doubling: runs of k combined with the same runs shifted by s <= k give
+     * runs of k + s, so a length of 10 takes four AND-shift steps.
+     */
+    static long[] runStarts(long[] free, int length) {
+        long[] runs = free.clone();
+        for (int have = 1; have < length; ) {
+            int step = Math.min(have, length - have);
+            for (int i = 0; i < runs.length; i++) {
+                // Ascending order reads the next word before it is updated
+                long next = i + 1 < runs.length ? runs[i + 1] : 0L;
+                runs[i] &= (runs[i] >>> step) | (next << (64 - step));
+            }
+            have += step;
+        }
+        return runs;
+    }
+
+    // True when the column is free but the one beyond it (in the given direction) is not
+    static boolean isOrphaned(long[] free, int column, int direction) {
+        return isFree(free, column) && !isFree(free, column + direction);
+    }
+
+    private static boolean isFree(long[] free, int column) {
+        return column >= 0 && (column >>> 6) < free.length && (free[column >>> 6] & (1L << column)) != 0;
+    }
+
+    private static SeatBlockDTO toBlock(SeatMapCache.SeatMap seatMap, Candidate candidate, int seats) {
+        int[] seatsInRow = seatMap.seatAtColumn[candidate.rank()];
+        List<Long> seatIds = new ArrayList<>(seats);
+        List<String> seatNumbers = new ArrayList<>(seats);
+        for (int column = candidate.start(); column < candidate.start() + seats; column++) {
+            int index = seatsInRow[column];
+            seatIds.add(seatMap.seatIds[index]);
+            seatNumbers.add(seatMap.seatNumbers[index]);
+        }
+        return SeatBlockDTO.builder()
+                .seatRow(seatMap.rowLabels[seatMap.rowAtRank[candidate.rank()]])
+                .seatIds(seatIds)
+                .seatNumbers(seatNumbers)
+                .score(Math.round(candidate.score() * 100) / 100.0)
+                .build();
+    }
+
+    private record Candidate(int rank, int start, double score) {
+        boolean overlaps(Candidate other, int seats) {
+            return rank == other.rank && Math.abs(start - other.start) < seats;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.response.WaitingRoomTicketDTO;
+import com.example.cinema_booking.enums.WaitingRoomStatus;
+import com.example.cinema_booking.exception.BookingException;
+import com.example.cinema_booking.exception.ResourceNotFoundException;
+import com.example.cinema_booking.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of the booking endpoints, one waiting room per
+ * screening. At most {@code admitted-window} clients per screening are inside
+ * at once: admitted waiting-room sessions plus booking requests that arrived
+ * without a token while the room was quiet. Everyone else joins a FIFO queue,
+ * polls their ticket for position and ETA, and is admitted as sessions end or
+ * expire. Tokenless requests to a busy screening, and joins to a full queue,
+ * are shed with 429 and Retry-After. Rooms are only opened for screenings
+ * that exist, and the number of live tickets across all rooms is capped.
+ *
+ * Queues live in memory, so in cluster mode a client's ticket is only known to
+ * the instance that issued it and the load balancer must route by screening or
+ * session.
+ */
+@Slf4j
+@Component
+public class WaitingRoomService {
+    public static final String HEADER = "X-Admission-Token";
+    private static final double SESSION_ESTIMATE_WEIGHT = 0.2;
+
+    private final boolean enabled;
+    private final int admittedWindow;
+    private final int maxQueueLength;
+    private final int maxTickets;
+    private final Duration sessionTtl;
+    private final Duration abandonAfter;
+    private final double initialSessionSeconds;
+    private final Counter shedCounter;
+    private final SeatMapCache seatMapCache;
+
+    private final ConcurrentHashMap<Long, Room> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    public WaitingRoomService(@Value("${booking.waiting-room.enabled:true}") boolean enabled,
+                              @Value("${booking.waiting-room.admitted-window:100}") int admittedWindow,
+                              @Value("${booking.waiting-room.max-queue-length:10000}") int maxQueueLength,
+                              @Value("${booking.waiting-room.max-tickets:100000}") int maxTickets,
+                              @Value("${booking.waiting-room.session-ttl-seconds:300}") long sessionTtlSeconds,
+                              @Value("${booking.waiting-room.abandon-after-seconds:30}") long abandonAfterSeconds,
+                              @Value("${booking.waiting-room.initial-session-estimate-seconds:60}") long initialSessionSeconds,
+                              SeatMapCache seatMapCache,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.admittedWindow = admittedWindow;
+        this.maxQueueLength = maxQueueLength;
+        this.maxTickets = maxTickets;
+        this.seatMapCache = seatMapCache;
+        this.sessionTtl = Duration.ofSeconds(sessionTtlSeconds);
+        this.abandonAfter = Duration.ofSeconds(abandonAfterSeconds);
+        this.initialSessionSeconds = initialSessionSeconds;
+        this.shedCounter = Counter.builder("booking.waitingroom.shed")
+                .description("Requests turned away with 429 by the waiting room")
+                .register(meterRegistry);
+        Gauge.builder("booking.waitingroom.queued", this, WaitingRoomService::getQueuedCount)
+                .description("Clients queued in screening waiting rooms")
+                .register(meterRegistry);
+        Gauge.builder("booking.waitingroom.admitted", this, WaitingRoomService::getAdmittedCount)
+                .description("Admitted sessions and in-flight direct requests across waiting rooms")
+                .register(meterRegistry);
+    }
+
+    public WaitingRoomTicketDTO join(Long screeningId) {
+        LocalDateTime now = LocalDateTime.now();
+        Ticket ticket = withRoom(screeningId, room -> {
+            if (room.queue.size() >= maxQueueLength) {
+                shedCounter.increment();
+                throw new TooManyRequestsException("The waiting room for this screening is full",
+                        room.estimatedWaitSeconds(room.queue.size()));
+            }
+            // Checked under this room's monitor only, so concurrent joins to other rooms may overshoot slightly
+            if (tickets.size() >= maxTickets) {
+                shedCounter.increment();
+                throw new TooManyRequestsException("The waiting rooms are full",
+                        room.estimatedWaitSeconds(room.queue.size()));
+            }
+            Ticket joined = new Ticket(UUID.randomUUID().toString(), screeningId, room.nextSeq++, now);
+            tickets.put(joined.token, joined);
+            room.queue.addLast(joined);
+            room.promote(now);
+            return joined;
+        });
+        return describe(ticket);
+    }
+
+    public WaitingRoomTicketDTO getTicket(String token) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Waiting room ticket not found or expired");
+        }
+        ticket.lastSeen = LocalDateTime.now();
+        return describe(ticket);
+    }
+
+    public void leave(String token) {
+        Ticket ticket = tickets.remove(token);
+        if (ticket != null) {
+            withRoom(ticket.screeningId, room -> {
+                room.remove(ticket, LocalDateTime.now());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs a booking call for the screening if the caller may enter: with an
+     * admitted token, or without one while the room has no queue and a free slot
+     * (that slot is held until the call completes).
+     */
+    public <T> CompletableFuture<T> admit(Long screeningId, String token, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        if (token != null && !token.isBlank()) {
+            checkAdmitted(screeningId, token);
+            return call.get();
+        }
+
+        boolean entered = withRoom(screeningId, room -> {
+            if (room.queue.isEmpty() && room.hasCapacity()) {
+                room.directInFlight++;
+                return true;
+            }
+            shedCounter.increment();
+            throw new TooManyRequestsException("Booking for this screening is busy. Join the waiting room and retry "
+                    + "with the " + HEADER + " header", room.estimatedWaitSeconds(room.queue.size()));
+        });
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            exitDirect(screeningId);
+            throw e;
+        }
+        return future.whenComplete((result, ex) -> exitDirect(screeningId));
+    }
+
+    // Expires sessions, drops waiters that stopped polling and admits from the queue heads
+    @Scheduled(fixedDelayString = "${booking.waiting-room.tick-ms:1000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime abandonedBefore = now.minus(abandonAfter);
+        for (Room room : rooms.values()) {
+            synchronized (room) {
+                room.admitted.removeIf(ticket -> {
+                    if (ticket.expiresAt.isBefore(now)) {
+                        tickets.remove(ticket.token);
+                        room.recordSession(ticket, now);
+                        return true;
+                    }
+                    return false;
+                });
+                for (Iterator<Ticket> it = room.queue.iterator(); it.hasNext(); ) {
+                    Ticket ticket = it.next();
+                    if (ticket.lastSeen.isBefore(abandonedBefore)) {
+                        it.remove();
+                        tickets.remove(ticket.token);
+                    }
+                }
+                room.promote(now);
+                if (room.isIdle()) {
+                    room.closed = true;
+                    rooms.remove(room.screeningId, room);
+                }
+            }
+        }
+    }
+
+    public int getQueuedCount() {
+        int queued = 0;
+        for (Room room : rooms.values()) {
+            synchronized (room) {
+                queued += room.queue.size();
+            }
+        }
+        return queued;
+    }
+
+    public int getAdmittedCount() {
+        int admitted = 0;
+        for (Room room : rooms.values()) {
+            synchronized (room) {
+                admitted += room.admitted.size() + room.directInFlight;
+            }
+        }
+        return admitted;
+    }
+
+    private void checkAdmitted(Long screeningId, String token) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null || !ticket.screeningId.equals(screeningId)) {
+            throw new BookingException("Invalid or expired admission token for this screening");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        ticket.lastSeen = now;
+        if (ticket.status != WaitingRoomStatus.ADMITTED) {
+            WaitingRoomTicketDTO waiting = describe(ticket);
+            throw new TooManyRequestsException("Still waiting for admission at position " + waiting.getPosition(),
+                    waiting.getPollAfterSeconds());
+        }
+        if (ticket.expiresAt.isBefore(now)) {
+            throw new BookingException("Invalid or expired admission token for this screening");
+        }
+    }
+
+    private void exitDirect(Long screeningId) {
+        withRoom(screeningId, room -> {
+            room.directInFlight--;
+            room.promote(LocalDateTime.now());
+            return null;
+        });
+    }
+
+    private WaitingRoomTicketDTO describe(Ticket ticket) {
+        return withRoom(ticket.screeningId, room -> {
+            WaitingRoomTicketDTO.WaitingRoomTicketDTOBuilder dto = WaitingRoomTicketDTO.builder()
+                    .token(ticket.token)
+                    .screeningId(ticket.screeningId)
+                    .status(ticket.status);
+            if (ticket.status == WaitingRoomStatus.ADMITTED) {
+                return dto.admissionExpiresAt(ticket.expiresAt)
+                        .estimatedWaitSeconds(0L)
+                        .build();
+            }
+            int position = room.positionOf(ticket);
+            long eta = room.estimatedWaitSeconds(position);
+            return dto.position(position)
+                    .estimatedWaitSeconds(eta)
+                    // Poll more often near the front, never faster than once a second
+                    .pollAfterSeconds(Math.max(1, Math.min(10, eta / 10)))
+                    .build();
+        });
+    }
+
+    // Runs under the room's monitor; retries if the room was closed by tick() in between
+    private <R> R withRoom(Long screeningId, Function<Room, R> action) {
+        while (true) {
+            Room room = rooms.get(screeningId);
+            if (room == null) {
+                // Throws ResourceNotFoundException for unknown screenings; cached, so usually no query
+                seatMapCache.getSeatMap(screeningId);
+                room = rooms.computeIfAbsent(screeningId, Room::new);
+            }
+            synchronized (room) {
+                if (!room.closed) {
+                    return action.apply(room);
+                }
+            }
+        }
+    }
+
+    private static final class Ticket {
+        final String token;
+        final Long screeningId;
+        final long seq;
+        volatile WaitingRoomStatus status = WaitingRoomStatus.WAITING;
+        volatile LocalDateTime lastSeen;
+        volatile LocalDateTime admittedAt;
+        volatile LocalDateTime expiresAt;
+
+        Ticket(String token, Long screeningId, long seq, LocalDateTime now) {
+            this.token = token;
+            this.screeningId = screeningId;
+            this.seq = seq;
+            this.lastSeen = now;
+        }
+    }
+
+    // Guarded by its own monitor
+    private final class Room {
+        final Long screeningId;
+        final Deque<Ticket> queue = new ArrayDeque<>();
+        final Set<Ticket> admitted = new LinkedHashSet<>();
+        int directInFlight;
+        long nextSeq;
+        double averageSessionSeconds = initialSessionSeconds;
+        boolean closed;
+
+        Room(Long screeningId) {
+            this.screeningId = screeningId;
+        }
+
+        boolean hasCapacity() {
+            return admitted.size() + directInFlight < admittedWindow;
+        }
+
+        void promote(LocalDateTime now) {
+            while (hasCapacity() && !queue.isEmpty()) {
+                Ticket ticket = queue.pollFirst();
+                ticket.admittedAt = now;
+                ticket.expiresAt = now.plus(sessionTtl);
+                ticket.status = WaitingRoomStatus.ADMITTED;
+                admitted.add(ticket);
+            }
+        }
+
+        void remove(Ticket ticket, LocalDateTime now) {
+            if (admitted.remove(ticket)) {
+                recordSession(ticket, now);
+                promote(now);
+            } else {
+                queue.remove(ticket);
+            }
+        }
+
+        // Tickets in the middle may have left, so this can overestimate slightly; it never underestimates
+        int positionOf(Ticket ticket) {
+            Ticket head = queue.peekFirst();
+            return head == null ? 0 : (int) Math.max(0, ticket.seq - head.seq);
+        }
+
+        // Slots free up at about admittedWindow / averageSessionSeconds per second
+        long estimatedWaitSeconds(int position) {
+            return (long) Math.ceil((position + 1) * averageSessionSeconds / admittedWindow);
+        }
+
+        void recordSession(Ticket ticket, LocalDateTime now) {
+            double seconds = Duration.between(ticket.admittedAt, now).toMillis() / 1000.0;
+            averageSessionSeconds += SESSION_ESTIMATE_WEIGHT * (seconds - averageSessionSeconds);
+        }
+
+        boolean isIdle() {
+            return queue.isEmpty() && admitted.isEmpty() && directInFlight == 0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+-- Baseline: the schema docker/mysql/init.sql used to create. IF NOT EXISTS lets it run
+-- against databases that were created by init.sql or by ddl-auto=update (baselined at 0).
+
+CREATE TABLE IF NOT EXISTS movie (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    genre VARCHAR(50),
+    description TEXT,
+    ticket_price DOUBLE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS seat_layout (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    row_count INT,
+    row_width INT,
+    total_seats INT,
+    grid LONGTEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS screening (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    movie_id BIGINT NOT NULL,
+    layout_id BIGINT NULL,
+    screening_time DATETIME NOT NULL,
+    total_seats INT NOT NULL,
+    available_seats INT NOT NULL,
+    version BIGINT DEFAULT 0,
+    FOREIGN KEY (movie_id) REFERENCES movie(id),
+    FOREIGN KEY (layout_id) REFERENCES seat_layout(id)
+);
+
+CREATE TABLE IF NOT EXISTS seat (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    screening_id BIGINT NOT NULL,
+    seat_row VARCHAR(5) NOT NULL,
+    seat_number VARCHAR(5) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    version BIGINT DEFAULT 0,
+    reserved_until DATETIME NULL,
+    FOREIGN KEY (screening_id) REFERENCES screening(id),
+    INDEX idx_seat_status_reserved_until (status, reserved_until)
+);
+
+CREATE TABLE IF NOT EXISTS booking (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    seat_id BIGINT NOT NULL,
+    booking_time DATETIME NOT NULL,
+    expiration_time DATETIME,
+    status VARCHAR(20) NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255),
+    customer_phone VARCHAR(20),
+    version BIGINT DEFAULT 0,
+    total_price DOUBLE NOT NULL,
+    FOREIGN KEY (seat_id) REFERENCES seat(id),
+    INDEX idx_booking_customer_time (customer_email, booking_time)
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_status INT,
+    response_body LONGTEXT,
+    created_at DATETIME,
+    expires_at DATETIME,
+    INDEX idx_idempotency_expires_at (expires_at)
+);
+
+CREATE TABLE IF NOT EXISTS cluster_lease (
+    name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    expires_at DATETIME NOT NULL
+);
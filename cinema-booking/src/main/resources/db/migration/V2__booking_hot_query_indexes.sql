@@ -0,0 +1,102 @@
+-- Indexes and constraints for the booking hot paths. MySQL 8 has no ADD COLUMN / CREATE INDEX
+-- IF NOT EXISTS, so every change is guarded through information_schema and a prepared statement;
+-- databases that already got some of these from ddl-auto=update migrate cleanly.
+
+-- booking.screening_id: mapped by Booking.screening and written by BookingJdbcRepository,
+-- but missing from the original init.sql schema
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE booking ADD COLUMN screening_id BIGINT NULL AFTER id', 'DO 0')
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'booking' AND COLUMN_NAME = 'screening_id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+UPDATE booking b JOIN seat s ON s.id = b.seat_id
+SET b.screening_id = s.screening_id
+WHERE b.screening_id IS NULL;
+
+ALTER TABLE booking MODIFY screening_id BIGINT NOT NULL;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+                      'ALTER TABLE booking ADD CONSTRAINT fk_booking_screening FOREIGN KEY (screening_id) REFERENCES screening(id)',
+                      'DO 0')
+            FROM information_schema.KEY_COLUMN_USAGE
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'booking' AND COLUMN_NAME = 'screening_id'
+              AND REFERENCED_TABLE_NAME = 'screening');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Seat-scoped booking lookups (findBySeatIdAndStatus, find/existsByScreeningAndSeatAndStatus):
+-- seek on (seat_id, status) and read screening_id from the index instead of the row
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_booking_seat_status ON booking (seat_id, status, screening_id)', 'DO 0')
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'booking' AND INDEX_NAME = 'idx_booking_seat_status');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- The old @OneToOne mapping left a unique key on booking.seat_id that blocks re-booking a seat
+-- after a cancellation. idx_booking_seat_status now backs the seat_id foreign key, so it can go.
+SET @legacy = (SELECT INDEX_NAME
+               FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'booking'
+                 AND NON_UNIQUE = 0 AND INDEX_NAME <> 'PRIMARY'
+               GROUP BY INDEX_NAME
+               HAVING COUNT(*) = 1 AND MAX(COLUMN_NAME) = 'seat_id'
+               LIMIT 1);
+SET @ddl = IF(@legacy IS NULL, 'DO 0', CONCAT('ALTER TABLE booking DROP INDEX `', @legacy, '`'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- At most one active (pending or confirmed) booking per seat, enforced by the database.
+-- Cancelled bookings map to NULL, which a unique index allows any number of times.
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+                      'ALTER TABLE booking ADD COLUMN active_seat_id BIGINT GENERATED ALWAYS AS '
+                          '(CASE WHEN status IN (''PENDING'', ''CONFIRMED'') THEN seat_id END) STORED',
+                      'DO 0')
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'booking' AND COLUMN_NAME = 'active_seat_id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE UNIQUE INDEX uk_booking_active_seat ON booking (active_seat_id)', 'DO 0')
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'booking' AND INDEX_NAME = 'uk_booking_active_seat');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Expiry sweep: pending bookings past their expiration_time
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_booking_status_expiration ON booking (status, expiration_time)', 'DO 0')
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'booking' AND INDEX_NAME = 'idx_booking_status_expiration');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Booking history keyset pages
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_booking_customer_time ON booking (customer_email, booking_time)', 'DO 0')
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'booking' AND INDEX_NAME = 'idx_booking_customer_time');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Seat map loads and available-seat counts per screening
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_seat_screening_status ON seat (screening_id, status)', 'DO 0')
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seat' AND INDEX_NAME = 'idx_seat_screening_status');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Screening lists of a movie in time order
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_screening_movie_time ON screening (movie_id, screening_time)', 'DO 0')
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'screening' AND INDEX_NAME = 'idx_screening_movie_time');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
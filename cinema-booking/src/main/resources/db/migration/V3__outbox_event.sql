@@ -0,0 +1,14 @@
+-- Transactional outbox drained by OutboxDispatcher
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload LONGTEXT,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME,
+    created_at DATETIME,
+    processed_at DATETIME,
+    last_error VARCHAR(1000),
+    INDEX idx_outbox_status_next_attempt (status, next_attempt_at)
+);
@@ -0,0 +1,31 @@
+-- Who placed a RESERVED hold (customer email and client IP), so holds can be capped per customer
+-- and per IP. Guarded like V2 because ddl-auto=update databases may already have the columns.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE seat ADD COLUMN reserved_by VARCHAR(255) NULL AFTER reserved_until', 'DO 0')
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seat' AND COLUMN_NAME = 'reserved_by');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE seat ADD COLUMN reserved_ip VARCHAR(64) NULL AFTER reserved_by', 'DO 0')
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seat' AND COLUMN_NAME = 'reserved_ip');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- SeatRepository.holdSeats counts a holder's unexpired holds: seek on the email or IP and
+-- range-scan the unexpired holds
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_seat_reserved_by ON seat (reserved_by, status, reserved_until)', 'DO 0')
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seat' AND INDEX_NAME = 'idx_seat_reserved_by');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_seat_reserved_ip ON seat (reserved_ip, status, reserved_until)', 'DO 0')
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seat' AND INDEX_NAME = 'idx_seat_reserved_ip');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
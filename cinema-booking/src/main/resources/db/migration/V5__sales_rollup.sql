@@ -0,0 +1,37 @@
+-- Per movie and screening hour sales counters maintained by SalesRollupService
+CREATE TABLE IF NOT EXISTS sales_rollup (
+    movie_id BIGINT NOT NULL,
+    bucket_date DATE NOT NULL,
+    bucket_hour TINYINT NOT NULL,
+    screenings INT NOT NULL DEFAULT 0,
+    capacity INT NOT NULL DEFAULT 0,
+    bookings INT NOT NULL DEFAULT 0,
+    confirmations INT NOT NULL DEFAULT 0,
+    cancellations INT NOT NULL DEFAULT 0,
+    expirations INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    confirmed_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at DATETIME,
+    PRIMARY KEY (movie_id, bucket_date, bucket_hour),
+    INDEX idx_sales_rollup_date (bucket_date, bucket_hour)
+);
+
+-- One-off backfill from the existing rows. Expired and cancelled bookings were not told apart
+-- before, so history counts both as cancellations.
+INSERT INTO sales_rollup (movie_id, bucket_date, bucket_hour, screenings, capacity, bookings, confirmations,
+                          cancellations, expirations, revenue, confirmed_revenue, updated_at)
+SELECT s.movie_id, DATE(s.screening_time), HOUR(s.screening_time),
+       COUNT(*), SUM(COALESCE(s.total_seats, 0)),
+       SUM(COALESCE(b.bookings, 0)), SUM(COALESCE(b.confirmations, 0)), SUM(COALESCE(b.cancellations, 0)), 0,
+       SUM(COALESCE(b.revenue, 0)), SUM(COALESCE(b.confirmed_revenue, 0)), NOW()
+FROM screening s
+LEFT JOIN (SELECT screening_id,
+                  COUNT(*) AS bookings,
+                  SUM(status = 'CONFIRMED') AS confirmations,
+                  SUM(status = 'CANCELLED') AS cancellations,
+                  SUM(CASE WHEN status <> 'CANCELLED' THEN total_price ELSE 0 END) AS revenue,
+                  SUM(CASE WHEN status = 'CONFIRMED' THEN total_price ELSE 0 END) AS confirmed_revenue
+           FROM booking
+           GROUP BY screening_id) b ON b.screening_id = s.id
+WHERE s.screening_time IS NOT NULL AND s.movie_id IS NOT NULL
+GROUP BY s.movie_id, DATE(s.screening_time), HOUR(s.screening_time);
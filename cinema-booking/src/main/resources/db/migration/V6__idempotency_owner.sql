@@ -0,0 +1,8 @@
+-- Token of the request that claimed an idempotency key. Renewing, completing and releasing the
+-- claim all require it, so a request whose claim was taken over cannot overwrite the new owner's.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE idempotency_record ADD COLUMN owner_token VARCHAR(36) NULL AFTER request_hash', 'DO 0')
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'idempotency_record' AND COLUMN_NAME = 'owner_token');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
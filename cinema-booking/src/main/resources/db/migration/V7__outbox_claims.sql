@@ -0,0 +1,8 @@
+-- Handlers that already delivered an outbox event, so a retry skips them. Dispatchers also
+-- claim rows with status IN_PROGRESS, which fits the existing VARCHAR(20) status column.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE outbox_event ADD COLUMN delivered_handlers VARCHAR(255) NULL', 'DO 0')
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'outbox_event' AND COLUMN_NAME = 'delivered_handlers');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
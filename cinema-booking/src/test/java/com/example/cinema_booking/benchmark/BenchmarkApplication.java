@@ -0,0 +1,40 @@
+package com.example.cinema_booking.benchmark;
+
+import com.example.cinema_booking.CinemaBookingApplication;
+import com.example.cinema_booking.entity.Screening;
+import com.example.cinema_booking.repository.ScreeningRepository;
+import com.example.cinema_booking.repository.SeatRepository;
+import com.example.cinema_booking.repository.SeatView;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Boots the real application against the in-memory H2 "benchmark" profile.
+ * DataInitializer seeds movies and 10x10 screenings on startup.
+ */
+final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(CinemaBookingApplication.class)
+                .profiles("benchmark")
+                .run();
+    }
+
+    static List<Long> screeningIds(ConfigurableApplicationContext context) {
+        return context.getBean(ScreeningRepository.class).findAll().stream()
+                .sorted(Comparator.comparing(Screening::getId))
+                .map(Screening::getId)
+                .toList();
+    }
+
+    static List<Long> seatIds(ConfigurableApplicationContext context, Long screeningId) {
+        return context.getBean(SeatRepository.class).findByScreeningIdOrderById(screeningId).stream()
+                .map(SeatView::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.cinema_booking.benchmark;
+
+import com.example.cinema_booking.dto.request.BookingRequestDTO;
+import com.example.cinema_booking.dto.response.SeatResponseDTO;
+import com.example.cinema_booking.entity.Booking;
+import com.example.cinema_booking.service.BookingService;
+import com.example.cinema_booking.service.ScreeningService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end booking operations through BookingService against H2.
+ * Every thread works on its own slice of seats, so failures only come
+ * from real bugs, while all threads share one screening to exercise the
+ * per-screening lock stripe.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingPathBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class App {
+        ConfigurableApplicationContext context;
+        BookingService bookingService;
+        ScreeningService screeningService;
+        Long screeningId;
+        List<Long> seatIds;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = BenchmarkApplication.start();
+            bookingService = context.getBean(BookingService.class);
+            screeningService = context.getBean(ScreeningService.class);
+            screeningId = BenchmarkApplication.screeningIds(context).get(0);
+            seatIds = BenchmarkApplication.seatIds(context, screeningId);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SeatCursor {
+        List<Long> seats;
+        int next;
+
+        @Setup(Level.Trial)
+        public void assign(App app, ThreadParams threadParams, BenchmarkParams benchmarkParams) {
+            int threads = benchmarkParams.getThreads();
+            int slice = app.seatIds.size() / threads;
+            int from = threadParams.getThreadIndex() * slice;
+            seats = app.seatIds.subList(from, from + slice);
+        }
+
+        Long nextSeat() {
+            Long seatId = seats.get(next);
+            next = (next + 1) % seats.size();
+            return seatId;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean reserveAndRelease(App app, SeatCursor cursor) {
+        Long seatId = cursor.nextSeat();
+        app.bookingService.reserveSeat(app.screeningId, seatId, null).join();
+        return app.bookingService.releaseSeatReservation(app.screeningId, seatId).join();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean reserveAndReleaseContended(App app, SeatCursor cursor) {
+        return reserveAndRelease(app, cursor);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long createAndCancelBooking(App app, SeatCursor cursor) {
+        Booking booking = app.bookingService.createBooking(BookingRequestDTO.builder()
+                .screeningId(app.screeningId)
+                .seatId(cursor.nextSeat())
+                .customerName("Bench User")
+                .customerEmail("bench@example.com")
+                .customerPhone("0900000000")
+                .build()).join();
+        app.bookingService.cancelBooking(booking.getId()).join();
+        return booking.getId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Long createAndCancelBookingContended(App app, SeatCursor cursor) {
+        return createAndCancelBooking(app, cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<SeatResponseDTO> seatMapRead(App app) {
+        return app.screeningService.getAvailableSeats(app.screeningId).join();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.cinema_booking.benchmark;
+
+import com.example.cinema_booking.dto.response.BookingResponseDTO;
+import com.example.cinema_booking.dto.response.SeatResponseDTO;
+import com.example.cinema_booking.entity.Booking;
+import com.example.cinema_booking.entity.Movie;
+import com.example.cinema_booking.entity.Screening;
+import com.example.cinema_booking.entity.Seat;
+import com.example.cinema_booking.enums.BookingStatus;
+import com.example.cinema_booking.enums.SeatStatus;
+import com.example.cinema_booking.repository.ScreeningRepository;
+import com.example.cinema_booking.repository.ScreeningSeatMapView;
+import com.example.cinema_booking.repository.SeatRepository;
+import com.example.cinema_booking.repository.SeatView;
+import com.example.cinema_booking.service.SeatLayoutService;
+import com.example.cinema_booking.service.SeatMapCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation-heavy mapping from entities and cached seat maps to response DTOs.
+ * Run with -prof gc (the benchmark profile does) to see bytes allocated per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoConversionBenchmark {
+    private static final long SCREENING_ID = 1L;
+
+    @Param({"100", "400"})
+    int seatCount;
+
+    List<Seat> seats;
+    Booking booking;
+    SeatMapCache seatMapCache;
+    long toggledSeatId;
+
+    @Setup
+    public void setUp() {
+        Movie movie = Movie.builder().id(1L).title("Inception").genre("Sci-Fi")
+                .description("A thief who steals corporate secrets").ticketPrice(110000).build();
+        Screening screening = Screening.builder().id(SCREENING_ID).movie(movie)
+                .screeningTime(LocalDateTime.now().plusDays(1))
+                .totalSeats(seatCount).availableSeats(seatCount)
+                .seats(ConcurrentHashMap.newKeySet()).build();
+
+        seats = new ArrayList<>(seatCount);
+        List<SeatView> views = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            Seat seat = Seat.builder().id((long) i + 1).screening(screening)
+                    .seatRow(String.valueOf((char) ('A' + i / 20)))
+                    .seatNumber(String.valueOf(i % 20 + 1))
+                    .status(SeatStatus.AVAILABLE).build();
+            seats.add(seat);
+            views.add(view(seat));
+        }
+        booking = Booking.builder().id(1L).screening(screening).seat(seats.get(0))
+                .bookingTime(LocalDateTime.now()).status(BookingStatus.PENDING)
+                .customerName("Bench User").customerEmail("bench@example.com").customerPhone("0900000000")
+                .totalPrice(movie.getTicketPrice()).build();
+
+        // Repositories are only consulted on a cache miss, which the benchmarks never hit after setup
+        SeatRepository seatRepository = Mockito.mock(SeatRepository.class);
+        ScreeningRepository screeningRepository = Mockito.mock(ScreeningRepository.class);
+        Mockito.when(seatRepository.findByScreeningIdOrderById(SCREENING_ID)).thenReturn(views);
+        ScreeningSeatMapView info = Mockito.mock(ScreeningSeatMapView.class);
+        Mockito.when(info.getScreeningTime()).thenReturn(screening.getScreeningTime());
+        Mockito.when(screeningRepository.findSeatMapInfoById(SCREENING_ID)).thenReturn(Optional.of(info));
+        seatMapCache = new SeatMapCache(seatRepository, screeningRepository, Mockito.mock(SeatLayoutService.class),
+                16, 3600, 30, new SimpleMeterRegistry());
+        seatMapCache.getSeats(SCREENING_ID);
+        toggledSeatId = seatCount / 2;
+    }
+
+    @Benchmark
+    public List<SeatResponseDTO> seatEntitiesToDtos() {
+        List<SeatResponseDTO> result = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            result.add(SeatResponseDTO.fromEntity(seat));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BookingResponseDTO bookingToDto() {
+        return BookingResponseDTO.fromEntity(booking);
+    }
+
+    @Benchmark
+    public List<SeatResponseDTO> cachedSeatMapHit() {
+        return seatMapCache.getSeats(SCREENING_ID);
+    }
+
+    @Benchmark
+    public List<SeatResponseDTO> cachedSeatMapAfterUpdate() {
+        // Flip one seat so the DTO snapshot has to be rebuilt
+        SeatStatus status = (toggledSeatId & 1) == 0 ? SeatStatus.RESERVED : SeatStatus.AVAILABLE;
+        toggledSeatId++;
+        seatMapCache.updateStatus(SCREENING_ID, List.of(seatCount / 2L), status);
+        return seatMapCache.getSeats(SCREENING_ID);
+    }
+
+    private static SeatView view(Seat seat) {
+        return new SeatView() {
+            @Override
+            public Long getId() {
+                return seat.getId();
+            }
+
+            @Override
+            public String getSeatRow() {
+                return seat.getSeatRow();
+            }
+
+            @Override
+            public String getSeatNumber() {
+                return seat.getSeatNumber();
+            }
+
+            @Override
+            public SeatStatus getStatus() {
+                return seat.getStatus();
+            }
+        };
+    }
+}
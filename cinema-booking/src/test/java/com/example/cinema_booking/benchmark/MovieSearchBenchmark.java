@@ -0,0 +1,72 @@
+package com.example.cinema_booking.benchmark;
+
+import com.example.cinema_booking.entity.Movie;
+import com.example.cinema_booking.repository.MovieRepository;
+import com.example.cinema_booking.service.MovieSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Movie search over the in-memory index: an exact word, a prefix as typed, a
+ * misspelling and a two-word query. Each should stay well under a millisecond
+ * for catalogues far larger than a cinema's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MovieSearchBenchmark {
+    private static final String[] GENRES = {"Action", "Comedy", "Drama", "Horror", "Sci-Fi", "Animation", "Thriller"};
+    private static final String[] WORDS = {
+            "dark", "knight", "galaxy", "return", "empire", "love", "city", "night", "shadow", "river",
+            "storm", "legend", "secret", "journey", "kingdom", "ocean", "winter", "summer", "escape", "detective",
+            "robot", "dragon", "island", "mountain", "silent", "broken", "golden", "lost", "final", "rising"};
+
+    @Param({"1000", "10000"})
+    int movieCount;
+
+    @Param({"galaxy", "detec", "detectve", "dark knight"})
+    String query;
+
+    MovieSearchIndex searchIndex;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Movie> movies = new ArrayList<>(movieCount);
+        for (int i = 0; i < movieCount; i++) {
+            movies.add(Movie.builder()
+                    .id((long) i + 1)
+                    .title(words(random, 3) + " " + i)
+                    .genre(GENRES[random.nextInt(GENRES.length)])
+                    .description(words(random, 25))
+                    .ticketPrice(12.5)
+                    .build());
+        }
+        MovieRepository movieRepository = Mockito.mock(MovieRepository.class);
+        Mockito.when(movieRepository.findAll()).thenReturn(movies);
+        searchIndex = new MovieSearchIndex(movieRepository, new SimpleMeterRegistry());
+        searchIndex.rebuild();
+    }
+
+    @Benchmark
+    public MovieSearchIndex.Result search() {
+        return searchIndex.search(query, 0, 20);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.cinema_booking.benchmark;
+
+import com.example.cinema_booking.service.SeatLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lock manager throughput with a fixed critical section, comparing every
+ * thread hitting one screening (the old global-lock behaviour) with threads
+ * spread over distinct screenings.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class SeatLockContentionBenchmark {
+    @Param({"1", "64"})
+    int stripes;
+
+    @Param({"50"})
+    int criticalSectionTokens;
+
+    SeatLockManager lockManager;
+
+    @Setup
+    public void setUp() {
+        lockManager = new SeatLockManager(stripes, 5000, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadScreening {
+        Long screeningId;
+
+        @Setup
+        public void setUp(ThreadParams threadParams) {
+            screeningId = (long) threadParams.getThreadIndex() + 1;
+        }
+    }
+
+    @Benchmark
+    public void sameScreening() {
+        lockManager.withScreeningLock(1L, "timeout", () -> Blackhole.consumeCPU(criticalSectionTokens));
+    }
+
+    @Benchmark
+    public void distinctScreenings(ThreadScreening screening) {
+        lockManager.withScreeningLock(screening.screeningId, "timeout",
+                () -> Blackhole.consumeCPU(criticalSectionTokens));
+    }
+}
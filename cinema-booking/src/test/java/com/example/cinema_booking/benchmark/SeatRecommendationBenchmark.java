@@ -0,0 +1,108 @@
+package com.example.cinema_booking.benchmark;
+
+import com.example.cinema_booking.dto.response.SeatBlockDTO;
+import com.example.cinema_booking.enums.SeatStatus;
+import com.example.cinema_booking.repository.ScreeningRepository;
+import com.example.cinema_booking.repository.ScreeningSeatMapView;
+import com.example.cinema_booking.repository.SeatRepository;
+import com.example.cinema_booking.repository.SeatView;
+import com.example.cinema_booking.service.SeatLayoutService;
+import com.example.cinema_booking.service.SeatMapCache;
+import com.example.cinema_booking.service.SeatRecommendationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-available search over a cached seat map with a partly sold hall.
+ * The bitmap scan should stay in the low microseconds even for large halls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatRecommendationBenchmark {
+    private static final long SCREENING_ID = 1L;
+    private static final int SEATS_PER_ROW = 25;
+
+    @Param({"100", "1000"})
+    int seatCount;
+
+    @Param({"0.5", "0.9"})
+    double soldFraction;
+
+    @Param({"2", "6"})
+    int groupSize;
+
+    SeatRecommendationService recommendationService;
+
+    @Setup
+    public void setUp() {
+        List<SeatView> views = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            views.add(view((long) i + 1, SeatLayoutService.rowLabel(i / SEATS_PER_ROW),
+                    String.valueOf(i % SEATS_PER_ROW + 1)));
+        }
+
+        // Repositories are only consulted on a cache miss, which the benchmark never hits after setup
+        SeatRepository seatRepository = Mockito.mock(SeatRepository.class);
+        ScreeningRepository screeningRepository = Mockito.mock(ScreeningRepository.class);
+        Mockito.when(seatRepository.findByScreeningIdOrderById(SCREENING_ID)).thenReturn(views);
+        ScreeningSeatMapView info = Mockito.mock(ScreeningSeatMapView.class);
+        Mockito.when(info.getScreeningTime()).thenReturn(LocalDateTime.now().plusDays(1));
+        Mockito.when(screeningRepository.findSeatMapInfoById(SCREENING_ID)).thenReturn(Optional.of(info));
+        SeatMapCache seatMapCache = new SeatMapCache(seatRepository, screeningRepository,
+                Mockito.mock(SeatLayoutService.class), 16, 3600, 30, new SimpleMeterRegistry());
+        seatMapCache.getSeatMap(SCREENING_ID);
+
+        Random random = new Random(42);
+        List<Long> sold = new ArrayList<>();
+        for (long id = 1; id <= seatCount; id++) {
+            if (random.nextDouble() < soldFraction) {
+                sold.add(id);
+            }
+        }
+        seatMapCache.updateStatus(SCREENING_ID, sold, SeatStatus.BOOKED);
+
+        // Only searches are measured, so no booking service is needed
+        recommendationService = new SeatRecommendationService(seatMapCache, null, 5, 1.5, 3.0);
+    }
+
+    @Benchmark
+    public List<SeatBlockDTO> recommend() {
+        return recommendationService.getRecommendations(SCREENING_ID, groupSize, 5).join();
+    }
+
+    private static SeatView view(Long id, String row, String number) {
+        return new SeatView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSeatRow() {
+                return row;
+            }
+
+            @Override
+            public String getSeatNumber() {
+                return number;
+            }
+
+            @Override
+            public SeatStatus getStatus() {
+                return SeatStatus.AVAILABLE;
+            }
+        };
+    }
+}
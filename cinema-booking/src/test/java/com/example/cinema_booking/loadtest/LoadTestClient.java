@@ -0,0 +1,202 @@
+package com.example.cinema_booking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thin blocking client for the booking API that times every call and
+ * classifies its outcome, so the runner only has to decide what to send next.
+ */
+final class LoadTestClient {
+    enum Operation { SEAT_MAP, RESERVE, RELEASE, BOOK, CANCEL, CONFIRM }
+
+    enum Outcome { SUCCESS, REJECTED, LOCK_TIMEOUT, CONFLICT, SHED, SERVER_ERROR, CLIENT_ERROR, IO_ERROR }
+
+    record Result(Outcome outcome, int status, JsonNode body) {
+        boolean isSuccess() {
+            return outcome == Outcome.SUCCESS;
+        }
+    }
+
+    static final class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+
+        OperationStats() {
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.put(outcome, new LongAdder());
+            }
+        }
+
+        long count(Outcome outcome) {
+            return outcomes.get(outcome).sum();
+        }
+    }
+
+    private static final List<String> EXPECTED_REJECTIONS = List.of(
+            "Seat is not available for booking",
+            "This seat already has a pending booking",
+            "Booking is already cancelled",
+            "Cannot cancel a confirmed booking",
+            "Only pending bookings can be confirmed");
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    LoadTestClient(String baseUrl, ExecutorService executor, Duration requestTimeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(requestTimeout)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    Map<Operation, OperationStats> getStats() {
+        return stats;
+    }
+
+    Result seatMap(long screeningId) {
+        return send(Operation.SEAT_MAP, get("/api/screenings/" + screeningId + "/seats"));
+    }
+
+    Result reserve(long screeningId, long seatId) {
+        Result result = send(Operation.RESERVE,
+                post("/api/bookings/screenings/" + screeningId + "/seats/" + seatId + "/reserve", null));
+        // The endpoint answers 200 with false when the seat is already held or booked
+        return booleanResult(Operation.RESERVE, result);
+    }
+
+    Result release(long screeningId, long seatId) {
+        Result result = send(Operation.RELEASE,
+                post("/api/bookings/screenings/" + screeningId + "/seats/" + seatId + "/release", null));
+        return booleanResult(Operation.RELEASE, result);
+    }
+
+    Result book(long screeningId, long seatId, String email) {
+        Map<String, Object> body = Map.of(
+                "screeningId", screeningId,
+                "seatId", seatId,
+                "customerName", "Load Test",
+                "customerEmail", email,
+                "customerPhone", "0900000000");
+        return send(Operation.BOOK, post("/api/bookings", body));
+    }
+
+    Result cancel(long bookingId) {
+        return send(Operation.CANCEL, request("/api/bookings/" + bookingId).DELETE().build());
+    }
+
+    Result confirm(long bookingId) {
+        return send(Operation.CONFIRM, post("/api/bookings/" + bookingId + "/confirm", null));
+    }
+
+    /** Untimed GET used for setup and verification. */
+    JsonNode getJson(String path) {
+        try {
+            HttpResponse<String> response = httpClient.send(get(path), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("GET " + path + " returned " + response.statusCode()
+                        + ": " + response.body());
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("GET " + path + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during GET " + path, e);
+        }
+    }
+
+    private Result send(Operation operation, HttpRequest request) {
+        OperationStats operationStats = stats.get(operation);
+        long start = System.nanoTime();
+        Result result;
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            JsonNode body = response.body().isEmpty() ? null : objectMapper.readTree(response.body());
+            result = new Result(classify(response.statusCode(), body), response.statusCode(), body);
+        } catch (IOException e) {
+            result = new Result(Outcome.IO_ERROR, 0, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = new Result(Outcome.IO_ERROR, 0, null);
+        }
+        operationStats.latency.record(System.nanoTime() - start);
+        operationStats.outcomes.get(result.outcome()).increment();
+        return result;
+    }
+
+    private Result booleanResult(Operation operation, Result result) {
+        if (result.isSuccess() && result.body() != null && !result.body().asBoolean()) {
+            OperationStats operationStats = stats.get(operation);
+            operationStats.outcomes.get(Outcome.SUCCESS).decrement();
+            operationStats.outcomes.get(Outcome.REJECTED).increment();
+            return new Result(Outcome.REJECTED, result.status(), result.body());
+        }
+        return result;
+    }
+
+    private static Outcome classify(int status, JsonNode body) {
+        if (status / 100 == 2) {
+            return Outcome.SUCCESS;
+        }
+        String error = body != null && body.hasNonNull("error") ? body.get("error").asText() : "";
+        String message = body != null && body.hasNonNull("message") ? body.get("message").asText() : "";
+        if (status == 409) {
+            return "Seat Lock Error".equals(error) ? Outcome.LOCK_TIMEOUT : Outcome.CONFLICT;
+        }
+        // Turned away by the waiting room before reaching the booking logic
+        if (status == 429) {
+            return Outcome.SHED;
+        }
+        if (status == 400 || status == 404) {
+            return Outcome.REJECTED;
+        }
+        // Business rule failures still surface as 500s; only the expected race losses count as rejections
+        if (status == 500 && EXPECTED_REJECTIONS.stream().anyMatch(message::contains)) {
+            return Outcome.REJECTED;
+        }
+        return status >= 500 ? Outcome.SERVER_ERROR : Outcome.CLIENT_ERROR;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            HttpRequest.BodyPublisher publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(publisher)
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout);
+    }
+}
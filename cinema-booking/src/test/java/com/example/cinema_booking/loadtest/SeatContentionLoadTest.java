@@ -0,0 +1,347 @@
+package com.example.cinema_booking.loadtest;
+
+import com.example.cinema_booking.CinemaBookingApplication;
+import com.example.cinema_booking.loadtest.LoadTestClient.Operation;
+import com.example.cinema_booking.loadtest.LoadTestClient.OperationStats;
+import com.example.cinema_booking.loadtest.LoadTestClient.Outcome;
+import com.example.cinema_booking.loadtest.LoadTestClient.Result;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent load generator for seat contention. Every simulated user runs on
+ * its own virtual thread and talks to the REST API over HTTP.
+ *
+ * <ul>
+ *   <li>{@code rush}: all users are released at once and race for a handful of hot seats
+ *       (reserve, then book), like the first seconds of a premiere going on sale.</li>
+ *   <li>{@code mixed}: users loop over weighted reserve/release/book/cancel/confirm and
+ *       seat-map traffic for a fixed duration, spread over several screenings.</li>
+ * </ul>
+ *
+ * Without {@code loadtest.base-url} the application is started in-process on a random
+ * port against the H2 "benchmark" profile. Run with {@code mvn -Ploadtest verify -DskipTests}.
+ * The process exits non-zero, failing the Maven build, when a seat ends up with more than
+ * one active booking, when any request fails with an unexpected error, or when the run itself fails.
+ */
+public final class SeatContentionLoadTest {
+    private final String scenario = System.getProperty("loadtest.scenario", "rush");
+    private final int users = Integer.getInteger("loadtest.users", 2000);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+    private final int hotSeats = Integer.getInteger("loadtest.hot-seats", 10);
+    private final int screenings = Integer.getInteger("loadtest.screenings", 4);
+    private final int thinkTimeMillis = Integer.getInteger("loadtest.think-time-ms", 0);
+    private final Duration requestTimeout = Duration.ofMillis(Integer.getInteger("loadtest.request-timeout-ms", 10000));
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Set<Long>> wonBookingsBySeat = new ConcurrentHashMap<>();
+    private final AtomicLong userErrors = new AtomicLong();
+
+    private LoadTestClient client;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url", "");
+        ConfigurableApplicationContext context = null;
+        int exitCode;
+        try {
+            if (baseUrl.isBlank()) {
+                context = startEmbedded();
+                baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            }
+            exitCode = new SeatContentionLoadTest().run(baseUrl);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 2;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext startEmbedded() {
+        // Command-line arguments win over the profile file, which disables the web server for JMH
+        return new SpringApplicationBuilder(CinemaBookingApplication.class)
+                .profiles("benchmark")
+                .run("--spring.main.web-application-type=servlet", "--server.port=0");
+    }
+
+    private int run(String baseUrl) throws InterruptedException {
+        client = new LoadTestClient(baseUrl, executor, requestTimeout);
+        List<Long> screeningIds = discoverScreenings();
+        Map<Long, List<Long>> seatsByScreening = new HashMap<>();
+        for (Long screeningId : screeningIds) {
+            seatsByScreening.put(screeningId, seatIds(screeningId));
+        }
+
+        long lockTimeoutsBefore = serverLockTimeouts();
+        System.out.printf("Running '%s' with %d users against %s (screenings %s)%n",
+                scenario, users, baseUrl, screeningIds);
+
+        long start = System.nanoTime();
+        switch (scenario) {
+            case "rush" -> runRush(screeningIds.get(0), seatsByScreening.get(screeningIds.get(0)));
+            case "mixed" -> runMixed(screeningIds, seatsByScreening);
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long clientViolations = wonBookingsBySeat.values().stream().filter(ids -> ids.size() > 1).count();
+        long serverViolations = verifyNoDoubleBookings(seatsByScreening);
+        long serverLockTimeouts = serverLockTimeouts() - lockTimeoutsBefore;
+        long requestErrors = printReport(elapsedSeconds, clientViolations, serverViolations, serverLockTimeouts);
+
+        executor.shutdownNow();
+        if (clientViolations + serverViolations + requestErrors + userErrors.get() > 0) {
+            System.out.println("FAILED: double bookings or unexpected errors, see above");
+            return 1;
+        }
+        return 0;
+    }
+
+    private void runRush(Long screeningId, List<Long> seats) throws InterruptedException {
+        List<Long> targets = seats.subList(0, Math.min(hotSeats, seats.size()));
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(users);
+        for (int i = 0; i < users; i++) {
+            String email = email(i);
+            executor.submit(() -> {
+                try {
+                    gate.await();
+                    // A user who loses a seat tries up to three hot seats before giving up
+                    for (int attempt = 0; attempt < 3; attempt++) {
+                        Long seatId = targets.get(ThreadLocalRandom.current().nextInt(targets.size()));
+                        if (client.reserve(screeningId, seatId).isSuccess()) {
+                            Result booked = client.book(screeningId, seatId, email);
+                            if (booked.isSuccess()) {
+                                recordWin(seatId, booked);
+                                return;
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    userErrors.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        gate.countDown();
+        done.await();
+    }
+
+    private void runMixed(List<Long> screeningIds, Map<Long, List<Long>> seatsByScreening) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        CountDownLatch done = new CountDownLatch(users);
+        for (int i = 0; i < users; i++) {
+            String email = email(i);
+            Long screeningId = screeningIds.get(i % screeningIds.size());
+            List<Long> seats = seatsByScreening.get(screeningId);
+            executor.submit(() -> {
+                try {
+                    new MixedUser(screeningId, seats, email).run(deadline);
+                } catch (Exception e) {
+                    userErrors.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private final class MixedUser {
+        final Long screeningId;
+        final List<Long> seats;
+        final String email;
+        final List<Long> heldSeats = new ArrayList<>();
+        final List<Long> pendingBookings = new ArrayList<>();
+
+        MixedUser(Long screeningId, List<Long> seats, String email) {
+            this.screeningId = screeningId;
+            this.seats = seats;
+            this.email = email;
+        }
+
+        void run(long deadline) throws InterruptedException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                int roll = random.nextInt(100);
+                if (roll < 10) {
+                    client.seatMap(screeningId);
+                } else if (roll < 40) {
+                    Long seatId = seats.get(random.nextInt(seats.size()));
+                    if (client.reserve(screeningId, seatId).isSuccess()) {
+                        heldSeats.add(seatId);
+                    }
+                } else if (roll < 55 && !heldSeats.isEmpty()) {
+                    client.release(screeningId, heldSeats.remove(heldSeats.size() - 1));
+                } else if (roll < 80) {
+                    Long seatId = heldSeats.isEmpty()
+                            ? seats.get(random.nextInt(seats.size()))
+                            : heldSeats.remove(heldSeats.size() - 1);
+                    Result booked = client.book(screeningId, seatId, email);
+                    if (booked.isSuccess()) {
+                        recordWin(seatId, booked);
+                        pendingBookings.add(booked.body().get("id").asLong());
+                    }
+                } else if (roll < 90 && !pendingBookings.isEmpty()) {
+                    Long bookingId = pendingBookings.remove(random.nextInt(pendingBookings.size()));
+                    if (client.cancel(bookingId).isSuccess()) {
+                        forgetWin(bookingId);
+                    }
+                } else if (!pendingBookings.isEmpty()) {
+                    client.confirm(pendingBookings.remove(random.nextInt(pendingBookings.size())));
+                }
+                if (thinkTimeMillis > 0) {
+                    Thread.sleep(random.nextInt(thinkTimeMillis + 1));
+                }
+            }
+        }
+    }
+
+    private void recordWin(Long seatId, Result booked) {
+        wonBookingsBySeat.computeIfAbsent(seatId, id -> ConcurrentHashMap.newKeySet())
+                .add(booked.body().get("id").asLong());
+    }
+
+    private void forgetWin(Long bookingId) {
+        wonBookingsBySeat.values().forEach(ids -> ids.remove(bookingId));
+    }
+
+    /**
+     * Reads every load-test user's bookings back and counts seats holding more than one
+     * PENDING/CONFIRMED booking, plus booked seats whose seat map does not say BOOKED.
+     */
+    private long verifyNoDoubleBookings(Map<Long, List<Long>> seatsByScreening) throws InterruptedException {
+        Map<Long, Set<Long>> activeBySeat = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(users);
+        for (int i = 0; i < users; i++) {
+            String email = email(i);
+            executor.submit(() -> {
+                try {
+                    for (JsonNode booking : client.getJson("/api/bookings/user/" + email)) {
+                        String status = booking.get("status").asText();
+                        if ("PENDING".equals(status) || "CONFIRMED".equals(status)) {
+                            activeBySeat.computeIfAbsent(booking.get("seat").get("id").asLong(),
+                                    id -> ConcurrentHashMap.newKeySet()).add(booking.get("id").asLong());
+                        }
+                    }
+                } catch (Exception e) {
+                    userErrors.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+
+        Map<Long, String> seatStatus = new HashMap<>();
+        for (Long screeningId : seatsByScreening.keySet()) {
+            for (JsonNode seat : client.getJson("/api/screenings/" + screeningId + "/seats")) {
+                seatStatus.put(seat.get("id").asLong(), seat.get("status").asText());
+            }
+        }
+        long mismatches = activeBySeat.keySet().stream()
+                .filter(seatId -> !"BOOKED".equals(seatStatus.get(seatId)))
+                .count();
+        if (mismatches > 0) {
+            System.out.printf("WARNING: %d seats have an active booking but are not BOOKED in the seat map%n", mismatches);
+        }
+        return activeBySeat.values().stream().filter(ids -> ids.size() > 1).count();
+    }
+
+    private List<Long> discoverScreenings() {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode movie : client.getJson("/api/movies")) {
+            for (JsonNode screening : client.getJson("/api/screenings/movie/" + movie.get("id").asLong())) {
+                ids.add(screening.get("id").asLong());
+                if (ids.size() == screenings) {
+                    return ids;
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No screenings found to run against");
+        }
+        return ids;
+    }
+
+    private List<Long> seatIds(Long screeningId) {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode seat : client.getJson("/api/screenings/" + screeningId + "/seats")) {
+            if ("AVAILABLE".equals(seat.get("status").asText())) {
+                ids.add(seat.get("id").asLong());
+            }
+        }
+        return ids;
+    }
+
+    private long serverLockTimeouts() {
+        long total = 0;
+        for (JsonNode stripe : client.getJson("/api/monitoring/locks?top=" + Integer.MAX_VALUE)) {
+            total += stripe.get("timeouts").asLong();
+        }
+        return total;
+    }
+
+    // Returns the number of requests that failed with an unexpected error
+    private long printReport(double elapsedSeconds, long clientViolations, long serverViolations,
+                             long serverLockTimeouts) {
+        long totalRequests = 0;
+        long lockTimeouts = 0;
+        long totalErrors = 0;
+        System.out.println();
+        System.out.printf("%-9s %8s %9s %8s %8s %8s %8s %8s %8s %8s %8s %8s%n", "operation", "requests",
+                "ok", "rejected", "lock-to", "conflict", "shed", "errors", "p50 ms", "p99 ms", "max ms", "req/s");
+        for (Map.Entry<Operation, OperationStats> entry : client.getStats().entrySet()) {
+            OperationStats stats = entry.getValue();
+            long count = stats.latency.count();
+            if (count == 0) {
+                continue;
+            }
+            totalRequests += count;
+            lockTimeouts += stats.count(Outcome.LOCK_TIMEOUT);
+            long errors = stats.count(Outcome.SERVER_ERROR) + stats.count(Outcome.CLIENT_ERROR)
+                    + stats.count(Outcome.IO_ERROR);
+            totalErrors += errors;
+            System.out.printf("%-9s %8d %9d %8d %8d %8d %8d %8d %8.1f %8.1f %8.1f %8.1f%n",
+                    entry.getKey(), count, stats.count(Outcome.SUCCESS), stats.count(Outcome.REJECTED),
+                    stats.count(Outcome.LOCK_TIMEOUT), stats.count(Outcome.CONFLICT), stats.count(Outcome.SHED), errors,
+                    stats.latency.percentileMillis(50), stats.latency.percentileMillis(99),
+                    stats.latency.maxMillis(), count / elapsedSeconds);
+        }
+        System.out.println();
+        System.out.printf("Elapsed: %.1fs, throughput: %.1f req/s, total requests: %d%n",
+                elapsedSeconds, totalRequests / elapsedSeconds, totalRequests);
+        System.out.printf("Lock timeouts: %d seen by clients, %d counted by the server%n",
+                lockTimeouts, serverLockTimeouts);
+        System.out.printf("Double-booking violations: %d from responses, %d from stored bookings%n",
+                clientViolations, serverViolations);
+        System.out.printf("Unexpected request errors: %d%n", totalErrors);
+        if (userErrors.get() > 0) {
+            System.out.printf("Users aborted by unexpected errors: %d%n", userErrors.get());
+        }
+        return totalErrors;
+    }
+
+    private static String email(int user) {
+        return "loadtest-" + user + "@example.com";
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.dto.response.MovieResponseDTO;
+import com.example.cinema_booking.entity.Movie;
+import com.example.cinema_booking.repository.MovieRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieSearchIndexTest {
+    private MovieSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findAll()).thenReturn(List.of(
+                movie(1L, "The Dark Knight", "Action", "Batman faces the Joker in Gotham"),
+                movie(2L, "Galaxy Quest", "Comedy", "Actors from a space show meet real aliens"),
+                movie(3L, "Detective Story", "Drama", "A dark night at a precinct"),
+                movie(4L, "Amélie", "Comedy", "A shy waitress in Paris")));
+        searchIndex = new MovieSearchIndex(movieRepository, new SimpleMeterRegistry());
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void tokenizeLowerCasesStripsAccentsAndDropsStopWords() {
+        assertEquals(List.of("amelie", "cafe", "2"), MovieSearchIndex.tokenize("The Amélie of Café-2!"));
+        assertEquals(List.of(), MovieSearchIndex.tokenize("  "));
+        assertEquals(List.of(), MovieSearchIndex.tokenize(null));
+    }
+
+    @Test
+    void withinOneEditAcceptsSingleEdits() {
+        assertTrue(MovieSearchIndex.withinOneEdit("night", "night"));
+        // Substitution
+        assertTrue(MovieSearchIndex.withinOneEdit("night", "nighs"));
+        // Adjacent swaps at the start, middle and end
+        assertTrue(MovieSearchIndex.withinOneEdit("night", "inght"));
+        assertTrue(MovieSearchIndex.withinOneEdit("night", "nihgt"));
+        assertTrue(MovieSearchIndex.withinOneEdit("night", "nigth"));
+        // Insertions and deletions at either end and in the middle
+        assertTrue(MovieSearchIndex.withinOneEdit("night", "knight"));
+        assertTrue(MovieSearchIndex.withinOneEdit("night", "nights"));
+        assertTrue(MovieSearchIndex.withinOneEdit("night", "nigt"));
+        assertTrue(MovieSearchIndex.withinOneEdit("knight", "night"));
+        assertTrue(MovieSearchIndex.withinOneEdit("nights", "night"));
+    }
+
+    @Test
+    void withinOneEditRejectsTwoEdits() {
+        assertFalse(MovieSearchIndex.withinOneEdit("night", "nite"));
+        assertFalse(MovieSearchIndex.withinOneEdit("night", "knights"));
+        assertFalse(MovieSearchIndex.withinOneEdit("night", "ingth"));
+        assertFalse(MovieSearchIndex.withinOneEdit("night", "nghit"));
+        assertFalse(MovieSearchIndex.withinOneEdit("night", "light!"));
+    }
+
+    @Test
+    void matchesExactPrefixAndMisspelledTerms() {
+        assertEquals(List.of(2L), ids(searchIndex.search("galaxy", 0, 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search("gal", 0, 10)));
+        assertEquals(List.of(3L), ids(searchIndex.search("detectve", 0, 10)));
+        assertEquals(List.of(4L), ids(searchIndex.search("AMELIE", 0, 10)));
+    }
+
+    @Test
+    void everyTermHasToMatch() {
+        assertEquals(List.of(1L), ids(searchIndex.search("dark batman", 0, 10)));
+        assertEquals(0, searchIndex.search("dark aliens", 0, 10).total());
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        // "dark" is in the title of movie 1 and the description of movie 3
+        assertEquals(List.of(1L, 3L), ids(searchIndex.search("dark", 0, 10)));
+    }
+
+    @Test
+    void pagesPastTheLastMatchAreEmptyWithTheTotal() {
+        MovieSearchIndex.Result first = searchIndex.search("comedy", 0, 1);
+        assertEquals(1, first.movies().size());
+        assertEquals(2, first.total());
+
+        MovieSearchIndex.Result beyond = searchIndex.search("comedy", 3L * Integer.MAX_VALUE, 1);
+        assertTrue(beyond.movies().isEmpty());
+        assertEquals(2, beyond.total());
+    }
+
+    private static List<Long> ids(MovieSearchIndex.Result result) {
+        return result.movies().stream().map(MovieResponseDTO::getId).toList();
+    }
+
+    private static Movie movie(Long id, String title, String genre, String description) {
+        return Movie.builder()
+                .id(id)
+                .title(title)
+                .genre(genre)
+                .description(description)
+                .ticketPrice(12.5)
+                .build();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.entity.OutboxEvent;
+import com.example.cinema_booking.enums.OutboxEventType;
+import com.example.cinema_booking.enums.OutboxStatus;
+import com.example.cinema_booking.repository.ClusterLeaseRepository;
+import com.example.cinema_booking.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dispatcher runs against a mocked outbox table and the stub handlers, with
+ * stub latency off and the payment stub failing whenever a test needs a failure.
+ */
+class OutboxDispatcherTest {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_SECONDS = 5;
+
+    private OutboxEventRepository outboxEventRepository;
+    private ClusterLeaseRepository clusterLeaseRepository;
+    private PlatformTransactionManager transactionManager;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        clusterLeaseRepository = mock(ClusterLeaseRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void deliversToEveryHandlerAndMarksTheEventProcessed() {
+        OutboxEvent event = event(1L, 10L, OutboxEventType.BOOKING_CONFIRMED, 0, null);
+        when(outboxEventRepository.findDueForUpdate(any(), any())).thenReturn(List.of(event), List.of());
+        dispatcher = dispatcher(false, 100, false);
+
+        dispatcher.dispatch();
+
+        verify(outboxEventRepository).claim(eq(List.of(1L)), any());
+        verify(outboxEventRepository).recordDelivered(1L, "payment-capture");
+        verify(outboxEventRepository).recordDelivered(1L, "payment-capture,ticket-issue");
+        verify(outboxEventRepository).recordDelivered(1L, "payment-capture,ticket-issue,booking-email");
+        verify(outboxEventRepository).markProcessed(eq(List.of(1L)), any());
+        verify(outboxEventRepository, never()).recordFailure(any(), any(), any(), any());
+    }
+
+    @Test
+    void retriesAFailedEventWithExponentialBackoff() {
+        OutboxEvent event = event(1L, 10L, OutboxEventType.BOOKING_CONFIRMED, 1, null);
+        when(outboxEventRepository.findDueForUpdate(any(), any())).thenReturn(List.of(event), List.of());
+        dispatcher = dispatcher(false, 100, true);
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxEventRepository).recordFailure(eq(1L), eq(OutboxStatus.PENDING), nextAttempt.capture(), any());
+        // Second attempt: twice the base backoff
+        Duration backoff = Duration.between(before, nextAttempt.getValue());
+        assertTrue(backoff.toSeconds() >= 2 * RETRY_BACKOFF_SECONDS && backoff.toSeconds() <= 2 * RETRY_BACKOFF_SECONDS + 1,
+                "backoff was " + backoff);
+        verify(outboxEventRepository, never()).markProcessed(any(), any());
+    }
+
+    @Test
+    void retrySkipsHandlersThatAlreadyDelivered() {
+        // The payment was captured on an earlier attempt; running it again would fail here
+        OutboxEvent event = event(1L, 10L, OutboxEventType.BOOKING_CONFIRMED, 1, "payment-capture");
+        when(outboxEventRepository.findDueForUpdate(any(), any())).thenReturn(List.of(event), List.of());
+        dispatcher = dispatcher(false, 100, true);
+
+        dispatcher.dispatch();
+
+        verify(outboxEventRepository, times(2)).recordDelivered(any(), any());
+        verify(outboxEventRepository).recordDelivered(1L, "payment-capture,ticket-issue");
+        verify(outboxEventRepository).recordDelivered(1L, "payment-capture,ticket-issue,booking-email");
+        verify(outboxEventRepository).markProcessed(eq(List.of(1L)), any());
+        verify(outboxEventRepository, never()).recordFailure(any(), any(), any(), any());
+    }
+
+    @Test
+    void parksTheEventAsFailedAfterTheLastAttempt() {
+        OutboxEvent event = event(1L, 10L, OutboxEventType.BOOKING_CONFIRMED, MAX_ATTEMPTS - 1, null);
+        when(outboxEventRepository.findDueForUpdate(any(), any())).thenReturn(List.of(event), List.of());
+        dispatcher = dispatcher(false, 100, true);
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<String> error = ArgumentCaptor.forClass(String.class);
+        verify(outboxEventRepository).recordFailure(eq(1L), eq(OutboxStatus.FAILED), any(), error.capture());
+        assertEquals("Simulated payment provider failure", error.getValue());
+        verify(outboxEventRepository, never()).recordDelivered(any(), any());
+    }
+
+    @Test
+    void holdsBackLaterEventsOfTheSameBooking() {
+        OutboxEvent confirmed = event(1L, 10L, OutboxEventType.BOOKING_CONFIRMED, 0, null);
+        OutboxEvent cancelled = event(2L, 10L, OutboxEventType.BOOKING_CANCELLED, 0, null);
+        OutboxEvent other = event(3L, 20L, OutboxEventType.BOOKING_CANCELLED, 0, null);
+        when(outboxEventRepository.findDueForUpdate(any(), any()))
+                .thenReturn(List.of(confirmed, cancelled, other), List.of());
+        dispatcher = dispatcher(false, 100, true);
+
+        dispatcher.dispatch();
+
+        verify(outboxEventRepository).recordFailure(eq(1L), eq(OutboxStatus.PENDING), any(), any());
+        verify(outboxEventRepository).recordFailure(eq(2L), eq(OutboxStatus.PENDING), any(),
+                eq("Held back by failed outbox event 1"));
+        // Another booking's event is not held back
+        verify(outboxEventRepository).markProcessed(eq(List.of(3L)), any());
+    }
+
+    @Test
+    void stopsDrainingOnceTheLeaseIsLost() {
+        when(clusterLeaseRepository.renew(any(), any(), any(), any())).thenReturn(1, 0);
+        when(outboxEventRepository.findDueForUpdate(any(), any())).thenReturn(
+                List.of(event(1L, 10L, OutboxEventType.BOOKING_CANCELLED, 0, null)),
+                List.of(event(2L, 20L, OutboxEventType.BOOKING_CANCELLED, 0, null)));
+        dispatcher = dispatcher(true, 1, false);
+
+        dispatcher.dispatch();
+
+        // A full batch would normally be followed by another, but the renewal failed
+        verify(outboxEventRepository, times(1)).findDueForUpdate(any(), any());
+        verify(outboxEventRepository).markProcessed(eq(List.of(1L)), any());
+    }
+
+    private OutboxDispatcher dispatcher(boolean clusterEnabled, int batchSize, boolean paymentFails) {
+        ClusterLeaseManager clusterLeaseManager = new ClusterLeaseManager(clusterLeaseRepository, transactionManager,
+                clusterEnabled, "test-instance", 90);
+        List<OutboxHandler> handlers = List.of(
+                new PaymentCaptureStubHandler(0, paymentFails ? 1.0 : 0.0),
+                new TicketIssueStubHandler(0),
+                new BookingEmailStubHandler(0));
+        return new OutboxDispatcher(outboxEventRepository, clusterLeaseManager, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), handlers, 2, batchSize, MAX_ATTEMPTS, RETRY_BACKOFF_SECONDS, 300, 300, 168);
+    }
+
+    private static OutboxEvent event(Long id, Long bookingId, OutboxEventType type, int attempts,
+                                     String deliveredHandlers) {
+        return OutboxEvent.builder()
+                .id(id)
+                .eventType(type)
+                .aggregateId(bookingId)
+                .payload("{}")
+                .status(OutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .deliveredHandlers(deliveredHandlers)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.cinema_booking.service;
+
+import com.example.cinema_booking.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * GCRA token buckets driven with explicit nanoTime values instead of the clock.
+ */
+class RateLimiterTest {
+    private static final long T0 = 1_000_000_000_000L;
+
+    // 3 requests of burst, one more every 500 ms
+    private final RateLimiter.Limit limit = new RateLimiter.Limit("test", 3, 2.0, 1000, new SimpleMeterRegistry());
+
+    @Test
+    void allowsTheBurstThenRejects() {
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> limit.acquire("client", T0));
+        }
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+                () -> limit.acquire("client", T0));
+        // The next token is 500 ms away, rounded up to whole seconds
+        assertEquals(1, rejected.getRetryAfterSeconds());
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limit.acquire("client", T0);
+        }
+        assertThrows(TooManyRequestsException.class, () -> limit.acquire("client", T0 + millis(499)));
+        assertDoesNotThrow(() -> limit.acquire("client", T0 + millis(500)));
+        assertThrows(TooManyRequestsException.class, () -> limit.acquire("client", T0 + millis(500)));
+    }
+
+    @Test
+    void rejectedRequestsDoNotUseUpTokens() {
+        for (int i = 0; i < 3; i++) {
+            limit.acquire("client", T0);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThrows(TooManyRequestsException.class, () -> limit.acquire("client", T0));
+        }
+        assertDoesNotThrow(() -> limit.acquire("client", T0 + millis(500)));
+    }
+
+    @Test
+    void anIdleBucketRefillsToTheBurstButNoFurther() {
+        for (int i = 0; i < 3; i++) {
+            limit.acquire("client", T0);
+        }
+        long later = T0 + TimeUnit.MINUTES.toNanos(10);
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> limit.acquire("client", later));
+        }
+        assertThrows(TooManyRequestsException.class, () -> limit.acquire("client", later));
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limit.acquire("a", T0);
+        }
+        assertThrows(TooManyRequestsException.class, () -> limit.acquire("a", T0));
+        assertDoesNotThrow(() -> limit.acquire("b", T0));
+    }
+
+    @Test
+    void retryAfterCoversTheWholeWait() {
+        // One request of burst, one more every 4 s
+        RateLimiter.Limit slow = new RateLimiter.Limit("slow", 1, 0.25, 1000, new SimpleMeterRegistry());
+        slow.acquire("client", T0);
+
+        assertEquals(4, assertThrows(TooManyRequestsException.class,
+                () -> slow.acquire("client", T0)).getRetryAfterSeconds());
+        // 2.5 s left rounds up to 3
+        assertEquals(3, assertThrows(TooManyRequestsException.class,
+                () -> slow.acquire("client", T0 + millis(1500))).getRetryAfterSeconds());
+        assertDoesNotThrow(() -> slow.acquire("client", T0 + millis(4000)));
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.cinema_booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bit-level checks of the block search; each free row is one long word per 64
+ * columns with a bit set for every free seat, as SeatMapCache builds it.
+ */
+class SeatRecommendationServiceTest {
+
+    @Test
+    void runStartsMatchesAColumnByColumnScan() {
+        Random random = new Random(42);
+        for (int words = 1; words <= 3; words++) {
+            for (int round = 0; round < 200; round++) {
+                // Mostly free rows, so long runs are common
+                long[] free = new long[words];
+                for (int i = 0; i < words; i++) {
+                    free[i] = random.nextLong() | random.nextLong() | random.nextLong();
+                }
+                for (int length = 1; length <= 64; length++) {
+                    assertArrayEquals(naiveRunStarts(free, length), SeatRecommendationService.runStarts(free, length),
+                            "length " + length + " over " + Long.toHexString(free[0]));
+                }
+            }
+        }
+    }
+
+    @Test
+    void runsCrossTheWordBoundary() {
+        long[] free = free(128, 60, 70);
+
+        long[] starts = SeatRecommendationService.runStarts(free, 10);
+
+        assertArrayEquals(new long[]{1L << 60, 0L}, starts);
+        // One seat longer than the run fits nowhere
+        assertArrayEquals(new long[]{0L, 0L}, SeatRecommendationService.runStarts(free, 11));
+    }
+
+    @Test
+    void aFullWordIsOneRunOfSixtyFour() {
+        long[] free = {-1L, 0L};
+
+        assertArrayEquals(new long[]{1L, 0L}, SeatRecommendationService.runStarts(free, 64));
+        assertArrayEquals(new long[]{0L, 0L}, SeatRecommendationService.runStarts(free, 65));
+    }
+
+    @Test
+    void runsStopAtAisles() {
+        // Columns 0-3 and 5-9 are seats, column 4 is an aisle
+        long[] free = free(64, 0, 10);
+        free[0] &= ~(1L << 4);
+
+        assertArrayEquals(new long[]{1L << 5}, SeatRecommendationService.runStarts(free, 5));
+        assertArrayEquals(new long[]{(1L << 0) | (1L << 5) | (1L << 6)}, SeatRecommendationService.runStarts(free, 4));
+        assertArrayEquals(new long[]{0L}, SeatRecommendationService.runStarts(free, 6));
+    }
+
+    @Test
+    void aSingleFreeSeatNextToABlockIsOrphaned() {
+        // Columns 0-3 and 5-9 free, column 4 an aisle
+        long[] free = free(64, 0, 10);
+        free[0] &= ~(1L << 4);
+
+        // A block at 1-3 strands column 0 against the wall
+        assertTrue(SeatRecommendationService.isOrphaned(free, 0, -1));
+        // A block at 0-2 strands column 3 against the aisle
+        assertTrue(SeatRecommendationService.isOrphaned(free, 3, 1));
+        // A block at 5-7 leaves 8-9, which is not a single seat
+        assertFalse(SeatRecommendationService.isOrphaned(free, 8, 1));
+        // A block that ends at the aisle or the wall strands nothing
+        assertFalse(SeatRecommendationService.isOrphaned(free, 4, 1));
+        assertFalse(SeatRecommendationService.isOrphaned(free, -1, -1));
+        assertFalse(SeatRecommendationService.isOrphaned(free, 64, 1));
+    }
+
+    @Test
+    void orphanCheckLooksAcrossTheWordBoundary() {
+        long[] free = free(128, 60, 70);
+
+        // Column 63 is free and 64 is too, so a block ending at 62 strands nothing
+        assertFalse(SeatRecommendationService.isOrphaned(free, 63, 1));
+        // Column 64 is free and 63 is too
+        assertFalse(SeatRecommendationService.isOrphaned(free, 64, -1));
+        // The last free seat, column 69, against the occupied column 70
+        assertTrue(SeatRecommendationService.isOrphaned(free, 69, 1));
+        // The first free seat, column 60, against the occupied column 59
+        assertTrue(SeatRecommendationService.isOrphaned(free, 60, -1));
+    }
+
+    // Free row of the given width with columns from (inclusive) to to (exclusive) free
+    private static long[] free(int width, int from, int to) {
+        long[] free = new long[(width + 63) >>> 6];
+        for (int column = from; column < to; column++) {
+            free[column >>> 6] |= 1L << column;
+        }
+        return free;
+    }
+
+    private static long[] naiveRunStarts(long[] free, int length) {
+        long[] starts = new long[free.length];
+        int columns = free.length * 64;
+        for (int start = 0; start + length <= columns; start++) {
+            boolean run = true;
+            for (int column = start; column < start + length && run; column++) {
+                run = (free[column >>> 6] & (1L << column)) != 0;
+            }
+            if (run) {
+                starts[start >>> 6] |= 1L << start;
+            }
+        }
+        return starts;
+    }
+}